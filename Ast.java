@@ -0,0 +1,427 @@
+import syntaxtree.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+//Ast is a flat copy of the tree of the parser: every node is an index into a few arrays of ints, instead of an object
+//  kind         the kind of the node (see syntaxtree.NodeKind, which also lists the children of every kind)
+//  firstChild   the index of its first child (-1 if it has none)
+//  nextSibling  the index of the next child of its parent (-1 if it is the last one)
+//  token        the index of its first token in the token table (for a node without tokens, like an empty list, the token after it)
+//The tokens are kept in the token table: their kind, line and column, and the image of the identifiers and the integer literals
+//(the image of every other kind of token is MiniJavaParserConstants.tokenImage). The same name has one String for all its tokens
+//The nodes are in preorder, so the root is 0, a parent is always before its children, and a child before its next sibling
+//The tree of the parser has an object for every NodeToken, NodeChoice, NodeOptional and NodeListOptional (with its NodeArray)
+//too, so the flat tree takes much less memory, and a traversal reads the arrays one after the other
+//AstDepthFirst is the visitor of the flat tree, toGoal makes the tree of the parser again, and AstSnapshot keeps it in a file
+public class Ast {
+    byte[] kind;
+    int[] firstChild;
+    int[] nextSibling;
+    int[] token;
+    int size;
+
+    byte[] tokenKind;
+    String[] image;
+    int[] line;
+    int[] column;
+    int tokens;
+
+    Ast(int nodes, int tokens){
+        kind = new byte[nodes];
+        firstChild = new int[nodes];
+        nextSibling = new int[nodes];
+        token = new int[nodes];
+        tokenKind = new byte[tokens];
+        image = new String[tokens];
+        line = new int[tokens];
+        column = new int[tokens];
+    }
+
+    public int kind(int node){
+        return kind[node];
+    }
+
+    public int firstChild(int node){
+        return firstChild[node];
+    }
+
+    public int nextSibling(int node){
+        return nextSibling[node];
+    }
+
+    //the i-th child of the node (-1 if it has fewer children)
+    public int child(int node, int i){
+        int child = firstChild[node];
+        while(i-- > 0 && child >= 0) child = nextSibling[child];
+        return child;
+    }
+
+    public int childCount(int node){
+        int count = 0;
+        for(int child = firstChild[node]; child >= 0; child = nextSibling[child]) count++;
+        return count;
+    }
+
+    public int token(int node){
+        return token[node];
+    }
+
+    //the image of the first token of the node (the name of an Identifier, the value of an IntegerLiteral)
+    public String image(int node){
+        int t = token[node];
+        if(t >= tokens) return null;
+        return image[t] != null ? image[t] : unquote(MiniJavaParserConstants.tokenImage[tokenKind[t]]);
+    }
+
+    public int line(int node){
+        return token[node] < tokens ? line[token[node]] : -1;
+    }
+
+    public int column(int node){
+        return token[node] < tokens ? column[token[node]] : -1;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public int tokens(){
+        return tokens;
+    }
+
+    //the bytes of the arrays (without the headers of the arrays, and without the Strings of the images)
+    public long bytes(){
+        return size * 13L + tokens * 13L;
+    }
+
+    private static String unquote(String image){
+        return image.length() > 1 && image.charAt(0) == '"' ? image.substring(1, image.length() - 1) : image;
+    }
+
+    private static final HashMap<Class<?>, Integer> kinds = new HashMap<Class<?>, Integer>();
+    private static final HashSet<Class<?>> choices = new HashSet<Class<?>>();
+    private static final HashMap<Class<?>, Field[]> fields = new HashMap<Class<?>, Field[]>();
+
+    static {
+        try{
+            for(int i = NodeKind.GOAL; i < NodeKind.AST_KINDS; i++) kinds.put(Class.forName("syntaxtree." + NodeKind.NAMES[i]), i);
+            for(String name: NodeKind.CHOICES) choices.add(Class.forName("syntaxtree." + name));
+        }
+        catch(ClassNotFoundException ex){
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    //the fields f0, f1, ... of a production that are nodes, in their order (getFields does not promise any order)
+    private static Field[] productionFields(Class<?> type){
+        synchronized(fields){
+            Field[] result = fields.get(type);
+            if(result == null){
+                List<Field> list = new ArrayList<Field>();
+                for(Field field: type.getFields()){
+                    if(Node.class.isAssignableFrom(field.getType()) && field.getName().startsWith("f")) list.add(field);
+                }
+                list.sort(Comparator.comparingInt(field -> Integer.parseInt(field.getName().substring(1))));
+                result = list.toArray(new Field[0]);
+                fields.put(type, result);
+            }
+            return result;
+        }
+    }
+
+    //makes the flat tree of a parsed program
+    //The tree is walked with a stack instead of recursion, so a deeply nested program needs no big stack
+    public static Ast of(Goal root) throws IllegalAccessException {
+        Ast ast = new Ast(256, 256);
+        int[] lastChild = new int[256];                             //the last child of every node so far (-1 if none)
+        HashMap<String, String> names = new HashMap<String, String>();
+
+        //the nodes that have not been copied yet, and the index of the parent that every one of them gets
+        ArrayList<Node> stack = new ArrayList<Node>();
+        int[] parents = new int[64];
+        stack.add(root);
+        parents[0] = -1;
+
+        while(!stack.isEmpty()){
+            int top = stack.size() - 1;
+            Node node = stack.remove(top);
+            int parent = parents[top];
+
+            if(node instanceof NodeToken){
+                ast.addToken((NodeToken) node, names);
+                continue;
+            }
+            if(node instanceof NodeChoice){
+                stack.add(((NodeChoice) node).choice);
+                continue;
+            }
+            if(choices.contains(node.getClass())){
+                stack.add(((NodeChoice) productionFields(node.getClass())[0].get(node)).choice);
+                continue;
+            }
+
+            //the children of a NodeSequence or a NodeList (the grammar has none) are children of the parent
+            List<Node> children = new ArrayList<Node>();
+            int index = parent;
+            if(node instanceof NodeSequence || node instanceof NodeList){
+                NodeListInterface list = (NodeListInterface) node;
+                for(int i = 0; i < list.size(); i++) children.add(list.elementAt(i));
+            }else{
+                int nodeKind;
+                if(node instanceof NodeListOptional){
+                    nodeKind = NodeKind.LIST;
+                    NodeListOptional list = (NodeListOptional) node;
+                    for(int i = 0; i < list.size(); i++) children.add(list.elementAt(i));
+                }else if(node instanceof NodeOptional){
+                    nodeKind = NodeKind.OPTIONAL;
+                    if(((NodeOptional) node).present()) children.add(((NodeOptional) node).node);
+                }else{
+                    nodeKind = kinds.get(node.getClass());
+                    for(Field field: productionFields(node.getClass())) children.add((Node) field.get(node));
+                }
+
+                index = ast.addNode(nodeKind);
+                if(lastChild.length < ast.kind.length) lastChild = Arrays.copyOf(lastChild, ast.kind.length);
+                lastChild[index] = -1;
+                if(parent >= 0){
+                    if(lastChild[parent] < 0){
+                        ast.firstChild[parent] = index;
+                    }else ast.nextSibling[lastChild[parent]] = index;
+                    lastChild[parent] = index;
+                }
+            }
+
+            //the children are pushed from the last, so they are copied in their order
+            if(parents.length < stack.size() + children.size()) parents = Arrays.copyOf(parents, 2 * (stack.size() + children.size()));
+            for(int i = children.size() - 1; i >= 0; i--){
+                parents[stack.size()] = index;
+                stack.add(children.get(i));
+            }
+        }
+        ast.trim();
+        return ast;
+    }
+
+    private int addNode(int nodeKind){
+        if(size == kind.length){
+            kind = Arrays.copyOf(kind, 2 * size);
+            firstChild = Arrays.copyOf(firstChild, 2 * size);
+            nextSibling = Arrays.copyOf(nextSibling, 2 * size);
+            token = Arrays.copyOf(token, 2 * size);
+        }
+        kind[size] = (byte) nodeKind;
+        firstChild[size] = -1;
+        nextSibling[size] = -1;
+        token[size] = tokens;           //the tokens are met in their order, so the next one is the first token of the node
+        return size++;
+    }
+
+    private void addToken(NodeToken t, HashMap<String, String> names){
+        if(tokens == tokenKind.length){
+            tokenKind = Arrays.copyOf(tokenKind, 2 * tokens);
+            image = Arrays.copyOf(image, 2 * tokens);
+            line = Arrays.copyOf(line, 2 * tokens);
+            column = Arrays.copyOf(column, 2 * tokens);
+        }
+        tokenKind[tokens] = (byte) t.kind;
+        if(t.kind == MiniJavaParserConstants.IDENTIFIER || t.kind == MiniJavaParserConstants.INTEGER_LITERAL){
+            String name = names.putIfAbsent(t.tokenImage, t.tokenImage);
+            image[tokens] = name != null ? name : t.tokenImage;
+        }
+        line[tokens] = t.beginLine;
+        column[tokens] = t.beginColumn;
+        tokens++;
+    }
+
+    //the image of every kind of token that is not an identifier or an integer literal (the EOF token has none)
+    private static final String[] IMAGES = new String[MiniJavaParserConstants.tokenImage.length];
+
+    static {
+        for(int i = 1; i < IMAGES.length; i++) IMAGES[i] = unquote(MiniJavaParserConstants.tokenImage[i]).intern();
+        IMAGES[MiniJavaParserConstants.EOF] = "";
+    }
+
+    //makes the tree of the parser again, with the same tokens (and positions) and the same choices as the tree that was copied
+    //Every production takes its tokens from the token table, in their order, and its other parts from the children of its node
+    //The identifiers get their symbols (and the Strings of their names) from the given Symbols, like the lexer gives them
+    public Goal toGoal(Symbols symbols){
+        return new GoalBuilder(symbols).goal(0);
+    }
+
+    public Goal toGoal(){
+        return toGoal(new Symbols());
+    }
+
+    private class GoalBuilder {
+        final Symbols symbols;
+        int next;                               //the next token of the token table
+
+        GoalBuilder(Symbols symbols){
+            this.symbols = symbols;
+        }
+
+        NodeToken token(){
+            int t = next++;
+            String text = image[t] != null ? image[t] : IMAGES[tokenKind[t]];
+            int symbol = -1;
+            if(tokenKind[t] == MiniJavaParserConstants.IDENTIFIER){
+                symbol = symbols.intern(text);
+                text = symbols.name(symbol);
+            }
+            int end = text.isEmpty() ? column[t] : column[t] + text.length() - 1;      //every token is on one line
+            NodeToken token = new NodeToken(text, tokenKind[t], line[t], column[t], line[t], end);
+            token.symbol = symbol;
+            return token;
+        }
+
+        Goal goal(int n){
+            int c = firstChild[n];
+            return new Goal(mainClass(c), list(nextSibling[c]), token());
+        }
+
+        MainClass mainClass(int n){
+            int c0 = firstChild[n], c1 = nextSibling[c0], c2 = nextSibling[c1], c3 = nextSibling[c2];
+            return new MainClass(token(), identifier(c0), token(), token(), token(), token(), token(), token(), token(), token(),
+                    token(), identifier(c1), token(), token(), list(c2), list(c3), token(), token());
+        }
+
+        Node typeDeclaration(int n){
+            if(kind[n] == NodeKind.CLASS_DECLARATION){
+                int c0 = firstChild[n], c1 = nextSibling[c0], c2 = nextSibling[c1];
+                return new TypeDeclaration(new NodeChoice(new ClassDeclaration(token(), identifier(c0), token(), list(c1), list(c2), token()), 0));
+            }
+            int c0 = firstChild[n], c1 = nextSibling[c0], c2 = nextSibling[c1], c3 = nextSibling[c2];
+            return new TypeDeclaration(new NodeChoice(new ClassExtendsDeclaration(token(), identifier(c0), token(), identifier(c1), token(),
+                    list(c2), list(c3), token()), 1));
+        }
+
+        VarDeclaration varDeclaration(int n){
+            int c0 = firstChild[n];
+            return new VarDeclaration(type(c0), identifier(nextSibling[c0]), token());
+        }
+
+        MethodDeclaration methodDeclaration(int n){
+            int c0 = firstChild[n], c1 = nextSibling[c0], c2 = nextSibling[c1], c3 = nextSibling[c2], c4 = nextSibling[c3], c5 = nextSibling[c4];
+            return new MethodDeclaration(token(), type(c0), identifier(c1), token(), optional(c2), token(), token(), list(c3), list(c4),
+                    token(), expression(c5), token(), token());
+        }
+
+        FormalParameter formalParameter(int n){
+            int c0 = firstChild[n];
+            return new FormalParameter(type(c0), identifier(nextSibling[c0]));
+        }
+
+        Type type(int n){
+            switch(kind[n]){
+                case NodeKind.ARRAY_TYPE: return new Type(new NodeChoice(new ArrayType(token(), token(), token()), 0));
+                case NodeKind.BOOLEAN_TYPE: return new Type(new NodeChoice(new BooleanType(token()), 1));
+                case NodeKind.INTEGER_TYPE: return new Type(new NodeChoice(new IntegerType(token()), 2));
+                default: return new Type(new NodeChoice(identifier(n), 3));
+            }
+        }
+
+        Statement statement(int n){
+            int c0 = firstChild[n], c1 = c0 < 0 ? -1 : nextSibling[c0], c2 = c1 < 0 ? -1 : nextSibling[c1];
+            switch(kind[n]){
+                case NodeKind.BLOCK: return new Statement(new NodeChoice(new Block(token(), list(c0), token()), 0));
+                case NodeKind.ASSIGNMENT_STATEMENT:
+                    return new Statement(new NodeChoice(new AssignmentStatement(identifier(c0), token(), expression(c1), token()), 1));
+                case NodeKind.ARRAY_ASSIGNMENT_STATEMENT:
+                    return new Statement(new NodeChoice(new ArrayAssignmentStatement(identifier(c0), token(), expression(c1), token(), token(),
+                            expression(c2), token()), 2));
+                case NodeKind.IF_STATEMENT:
+                    return new Statement(new NodeChoice(new IfStatement(token(), token(), expression(c0), token(), statement(c1), token(),
+                            statement(c2)), 3));
+                case NodeKind.WHILE_STATEMENT:
+                    return new Statement(new NodeChoice(new WhileStatement(token(), token(), expression(c0), token(), statement(c1)), 4));
+                default: return new Statement(new NodeChoice(new PrintStatement(token(), token(), expression(c0), token(), token()), 5));
+            }
+        }
+
+        Expression expression(int n){
+            int c0 = firstChild[n], c1 = c0 < 0 ? -1 : nextSibling[c0], c2 = c1 < 0 ? -1 : nextSibling[c1];
+            switch(kind[n]){
+                case NodeKind.AND_EXPRESSION: return new Expression(new NodeChoice(new AndExpression(primary(c0), token(), primary(c1)), 0));
+                case NodeKind.COMPARE_EXPRESSION: return new Expression(new NodeChoice(new CompareExpression(primary(c0), token(), primary(c1)), 1));
+                case NodeKind.PLUS_EXPRESSION: return new Expression(new NodeChoice(new PlusExpression(primary(c0), token(), primary(c1)), 2));
+                case NodeKind.MINUS_EXPRESSION: return new Expression(new NodeChoice(new MinusExpression(primary(c0), token(), primary(c1)), 3));
+                case NodeKind.TIMES_EXPRESSION: return new Expression(new NodeChoice(new TimesExpression(primary(c0), token(), primary(c1)), 4));
+                case NodeKind.ARRAY_LOOKUP: return new Expression(new NodeChoice(new ArrayLookup(primary(c0), token(), primary(c1), token()), 5));
+                case NodeKind.ARRAY_LENGTH: return new Expression(new NodeChoice(new ArrayLength(primary(c0), token(), token()), 6));
+                case NodeKind.MESSAGE_SEND:
+                    return new Expression(new NodeChoice(new MessageSend(primary(c0), token(), identifier(c1), token(), optional(c2), token()), 7));
+                default: return new Expression(new NodeChoice(primary(n), 8));
+            }
+        }
+
+        PrimaryExpression primary(int n){
+            int c0 = firstChild[n];
+            switch(kind[n]){
+                case NodeKind.INTEGER_LITERAL: return new PrimaryExpression(new NodeChoice(new IntegerLiteral(token()), 0));
+                case NodeKind.TRUE_LITERAL: return new PrimaryExpression(new NodeChoice(new TrueLiteral(token()), 1));
+                case NodeKind.FALSE_LITERAL: return new PrimaryExpression(new NodeChoice(new FalseLiteral(token()), 2));
+                case NodeKind.IDENTIFIER: return new PrimaryExpression(new NodeChoice(identifier(n), 3));
+                case NodeKind.THIS_EXPRESSION: return new PrimaryExpression(new NodeChoice(new ThisExpression(token()), 4));
+                case NodeKind.ARRAY_ALLOCATION_EXPRESSION:
+                    return new PrimaryExpression(new NodeChoice(new ArrayAllocationExpression(token(), token(), token(), expression(c0), token()), 5));
+                case NodeKind.ALLOCATION_EXPRESSION:
+                    return new PrimaryExpression(new NodeChoice(new AllocationExpression(token(), identifier(c0), token(), token()), 6));
+                case NodeKind.NOT_EXPRESSION: return new PrimaryExpression(new NodeChoice(new NotExpression(token(), primary(c0)), 7));
+                default: return new PrimaryExpression(new NodeChoice(new BracketExpression(token(), expression(c0), token()), 8));
+            }
+        }
+
+        Identifier identifier(int n){
+            return new Identifier(token());
+        }
+
+        //the elements of a list are the productions that the grammar has in that list (a list of FormalParameterTerm has only
+        //them, and so on), so the kind of the first one shows what they are
+        NodeListOptional list(int n){
+            NodeListOptional list = new NodeListOptional();
+            for(int c = firstChild[n]; c >= 0; c = nextSibling[c]) list.addNode(element(c));
+            list.nodes.trimToSize();
+            return list;
+        }
+
+        NodeOptional optional(int n){
+            int c = firstChild[n];
+            if(c < 0) return new NodeOptional();
+            int c0 = firstChild[c];
+            if(kind[c] == NodeKind.FORMAL_PARAMETER_LIST){
+                return new NodeOptional(new FormalParameterList(formalParameter(c0), new FormalParameterTail(list(firstChild[nextSibling[c0]]))));
+            }
+            return new NodeOptional(new ExpressionList(expression(c0), new ExpressionTail(list(firstChild[nextSibling[c0]]))));
+        }
+
+        Node element(int n){
+            switch(kind[n]){
+                case NodeKind.CLASS_DECLARATION:
+                case NodeKind.CLASS_EXTENDS_DECLARATION: return typeDeclaration(n);
+                case NodeKind.VAR_DECLARATION: return varDeclaration(n);
+                case NodeKind.METHOD_DECLARATION: return methodDeclaration(n);
+                case NodeKind.FORMAL_PARAMETER_TERM: return new FormalParameterTerm(token(), formalParameter(firstChild[n]));
+                case NodeKind.EXPRESSION_TERM: return new ExpressionTerm(token(), expression(firstChild[n]));
+                default: return statement(n);
+            }
+        }
+    }
+
+    //drops the unused end of the arrays
+    private void trim(){
+        kind = Arrays.copyOf(kind, size);
+        firstChild = Arrays.copyOf(firstChild, size);
+        nextSibling = Arrays.copyOf(nextSibling, size);
+        token = Arrays.copyOf(token, size);
+        tokenKind = Arrays.copyOf(tokenKind, tokens);
+        image = Arrays.copyOf(image, tokens);
+        line = Arrays.copyOf(line, tokens);
+        column = Arrays.copyOf(column, tokens);
+    }
+}
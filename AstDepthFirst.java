@@ -0,0 +1,231 @@
+import syntaxtree.NodeKind;
+
+//AstDepthFirst visits the nodes of an Ast depth first, like visitor.GJDepthFirst visits the tree of the parser: visit calls the
+//method of the kind of the node, and every method visits the children of the node (in their order) and returns null
+//A visitor extends it and overrides the methods of the kinds it needs. A node is its index in the Ast (see syntaxtree.NodeKind
+//for the children of every kind), and the choices (Type, Statement, Expression, ...) are not nodes, so a visitor gets the
+//node that was chosen directly
+public class AstDepthFirst<R, A> {
+    protected final Ast ast;
+
+    public AstDepthFirst(Ast ast){
+        this.ast = ast;
+    }
+
+    public R visit(int node, A argu) throws Exception {
+        switch(ast.kind[node]){
+            case NodeKind.LIST: return visitList(node, argu);
+            case NodeKind.OPTIONAL: return visitOptional(node, argu);
+            case NodeKind.GOAL: return visitGoal(node, argu);
+            case NodeKind.MAIN_CLASS: return visitMainClass(node, argu);
+            case NodeKind.CLASS_DECLARATION: return visitClassDeclaration(node, argu);
+            case NodeKind.CLASS_EXTENDS_DECLARATION: return visitClassExtendsDeclaration(node, argu);
+            case NodeKind.VAR_DECLARATION: return visitVarDeclaration(node, argu);
+            case NodeKind.METHOD_DECLARATION: return visitMethodDeclaration(node, argu);
+            case NodeKind.FORMAL_PARAMETER_LIST: return visitFormalParameterList(node, argu);
+            case NodeKind.FORMAL_PARAMETER: return visitFormalParameter(node, argu);
+            case NodeKind.FORMAL_PARAMETER_TAIL: return visitFormalParameterTail(node, argu);
+            case NodeKind.FORMAL_PARAMETER_TERM: return visitFormalParameterTerm(node, argu);
+            case NodeKind.ARRAY_TYPE: return visitArrayType(node, argu);
+            case NodeKind.BOOLEAN_TYPE: return visitBooleanType(node, argu);
+            case NodeKind.INTEGER_TYPE: return visitIntegerType(node, argu);
+            case NodeKind.BLOCK: return visitBlock(node, argu);
+            case NodeKind.ASSIGNMENT_STATEMENT: return visitAssignmentStatement(node, argu);
+            case NodeKind.ARRAY_ASSIGNMENT_STATEMENT: return visitArrayAssignmentStatement(node, argu);
+            case NodeKind.IF_STATEMENT: return visitIfStatement(node, argu);
+            case NodeKind.WHILE_STATEMENT: return visitWhileStatement(node, argu);
+            case NodeKind.PRINT_STATEMENT: return visitPrintStatement(node, argu);
+            case NodeKind.AND_EXPRESSION: return visitAndExpression(node, argu);
+            case NodeKind.COMPARE_EXPRESSION: return visitCompareExpression(node, argu);
+            case NodeKind.PLUS_EXPRESSION: return visitPlusExpression(node, argu);
+            case NodeKind.MINUS_EXPRESSION: return visitMinusExpression(node, argu);
+            case NodeKind.TIMES_EXPRESSION: return visitTimesExpression(node, argu);
+            case NodeKind.ARRAY_LOOKUP: return visitArrayLookup(node, argu);
+            case NodeKind.ARRAY_LENGTH: return visitArrayLength(node, argu);
+            case NodeKind.MESSAGE_SEND: return visitMessageSend(node, argu);
+            case NodeKind.EXPRESSION_LIST: return visitExpressionList(node, argu);
+            case NodeKind.EXPRESSION_TAIL: return visitExpressionTail(node, argu);
+            case NodeKind.EXPRESSION_TERM: return visitExpressionTerm(node, argu);
+            case NodeKind.INTEGER_LITERAL: return visitIntegerLiteral(node, argu);
+            case NodeKind.TRUE_LITERAL: return visitTrueLiteral(node, argu);
+            case NodeKind.FALSE_LITERAL: return visitFalseLiteral(node, argu);
+            case NodeKind.IDENTIFIER: return visitIdentifier(node, argu);
+            case NodeKind.THIS_EXPRESSION: return visitThisExpression(node, argu);
+            case NodeKind.ARRAY_ALLOCATION_EXPRESSION: return visitArrayAllocationExpression(node, argu);
+            case NodeKind.ALLOCATION_EXPRESSION: return visitAllocationExpression(node, argu);
+            case NodeKind.NOT_EXPRESSION: return visitNotExpression(node, argu);
+            case NodeKind.BRACKET_EXPRESSION: return visitBracketExpression(node, argu);
+            default: throw new IllegalStateException("unknown kind of node " + ast.kind[node]);
+        }
+    }
+
+    //visits the children of the node, in their order
+    public R visitChildren(int node, A argu) throws Exception {
+        for(int child = ast.firstChild[node]; child >= 0; child = ast.nextSibling[child]) visit(child, argu);
+        return null;
+    }
+
+    public R visitList(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitOptional(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitGoal(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitMainClass(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitClassDeclaration(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitClassExtendsDeclaration(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitVarDeclaration(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitMethodDeclaration(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitFormalParameterList(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitFormalParameter(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitFormalParameterTail(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitFormalParameterTerm(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitArrayType(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitBooleanType(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitIntegerType(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitBlock(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitAssignmentStatement(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitArrayAssignmentStatement(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitIfStatement(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitWhileStatement(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitPrintStatement(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitAndExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitCompareExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitPlusExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitMinusExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitTimesExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitArrayLookup(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitArrayLength(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitMessageSend(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitExpressionList(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitExpressionTail(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitExpressionTerm(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitIntegerLiteral(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitTrueLiteral(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitFalseLiteral(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitIdentifier(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitThisExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitArrayAllocationExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitAllocationExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitNotExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+
+    public R visitBracketExpression(int node, A argu) throws Exception {
+        return visitChildren(node, argu);
+    }
+}
@@ -0,0 +1,235 @@
+import syntaxtree.Goal;
+import syntaxtree.NodeKind;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+
+//AstSnapshot keeps the parsed programs in a directory (--snapshots <dir>), as the arrays of their Ast, so a file that is checked
+//again (with the same or with other options) is not parsed again: its snapshot is mapped in memory, and the tree of the parser
+//is made from it (Ast.toGoal), which is much faster than lexing and parsing the file
+//The symbols of the identifiers (see Symbols) are not kept, since they are only the same for one Symbols: the loaded tree gets them
+//from the Symbols it is given
+//The name of a snapshot is the SHA-256 of the contents of the file. A snapshot starts with a header:
+//  MAGIC, FORMAT        the format of the file (change FORMAT when the format changes)
+//  grammar              the SHA-256 of the kinds of the nodes and of the tokens, so a snapshot of an older grammar is not used
+//  nodes, tokens, strings
+//and then every node: its kind (a byte), how many tokens after the token of the node before it its token is, and how many nodes
+//after it its next sibling is (0 if it has none); then every token: its kind (a byte), how many lines after the token before it
+//it is, its column, and the index of its image in the strings plus one (0 for the tokens whose image is their kind); and then
+//every string of the images (its length, and its bytes in UTF-8)
+//The numbers are varints (7 bits in every byte, the last byte of a number is the one without 0x80), and they are differences
+//because the arrays only grow, so almost every number is one byte (a snapshot is one to two and a half times as big as the source)
+//firstChild is not kept: the nodes are in preorder, so the first child of a node is the next node, and the kind of a node that
+//has children has HAS_CHILDREN too
+//read decodes the arrays of the Ast straight from the mapped file, without copying it in the heap first
+//A snapshot with another header, or one that is cut short or broken, is stale: it is not used, and the next parse replaces it
+public class AstSnapshot {
+    static final int MAGIC = 0x4d4a4153;        //"MJAS"
+    static final int FORMAT = 2;
+    static final String SUFFIX = ".ast";
+    static final byte[] GRAMMAR = grammar();
+    static final int HEADER = 8 + GRAMMAR.length + 12;
+    static final int HAS_CHILDREN = 0x80;        //the kinds of the nodes are less than it
+
+    private final File dir;
+    private long hits, misses, stale;
+
+    public AstSnapshot(File dir) throws IOException {
+        this.dir = dir;
+        if(!dir.isDirectory() && !dir.mkdirs()) throw new IOException("cannot create the snapshot directory " + dir);
+    }
+
+    private static byte[] grammar(){
+        MessageDigest digest = sha256();
+        for(String name: NodeKind.NAMES) digest.update((name + "\n").getBytes(StandardCharsets.UTF_8));
+        for(String image: MiniJavaParserConstants.tokenImage) digest.update((image + "\n").getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256(){
+        try{
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch(NoSuchAlgorithmException ex){
+            throw new IllegalStateException(ex);        //every jvm has SHA-256
+        }
+    }
+
+    private File file(byte[] source){
+        StringBuilder hex = new StringBuilder();
+        for(byte b: sha256().digest(source)) hex.append(String.format("%02x", b & 0xff));
+        return new File(dir, hex + SUFFIX);
+    }
+
+    //the tree of the program with the given contents, or null if there is no snapshot of it (or only a stale one)
+    public Goal load(byte[] source, Symbols symbols){
+        File file = file(source);
+        Goal root = null;
+        boolean found = file.isFile();
+        if(found){
+            try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+                Ast ast = read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                if(ast != null) root = ast.toGoal(symbols);
+            }
+            catch(IOException | RuntimeException ex){
+                root = null;                //a file that can't be read (or that is broken inside) is stale too
+            }
+        }
+
+        synchronized(this){
+            if(root == null){
+                if(found){
+                    stale++;
+                }else misses++;
+            }else hits++;
+        }
+        return root;
+    }
+
+    //keeps the snapshot of the parsed program with the given contents
+    public void store(byte[] source, Goal root) throws IOException {
+        Ast ast;
+        try{
+            ast = Ast.of(root);
+        }
+        catch(IllegalAccessException ex){
+            throw new IllegalStateException(ex);        //the fields of the syntaxtree are public
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER + ast.size() * 3 + ast.tokens() * 4);
+        write(ast, new DataOutputStream(bytes));
+
+        //written in a temporary file first, so that nobody maps a half written snapshot
+        File file = file(source);
+        File tmp = File.createTempFile(file.getName(), ".tmp", dir);
+        try{
+            Files.write(tmp.toPath(), bytes.toByteArray());
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally{
+            tmp.delete();
+        }
+    }
+
+    static void write(Ast ast, DataOutputStream out) throws IOException {
+        //the images, every one once
+        HashMap<String, Integer> index = new HashMap<String, Integer>();
+        int[] images = new int[ast.tokens];
+        for(int i = 0; i < ast.tokens; i++){
+            if(ast.image[i] == null){
+                images[i] = -1;
+                continue;
+            }
+            Integer found = index.putIfAbsent(ast.image[i], index.size());
+            images[i] = found != null ? found : index.size() - 1;
+        }
+        String[] strings = new String[index.size()];
+        for(HashMap.Entry<String, Integer> entry: index.entrySet()) strings[entry.getValue()] = entry.getKey();
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.write(GRAMMAR);
+        out.writeInt(ast.size);
+        out.writeInt(ast.tokens);
+        out.writeInt(strings.length);
+        for(int i = 0; i < ast.size; i++){
+            out.write(ast.firstChild[i] >= 0 ? ast.kind[i] | HAS_CHILDREN : ast.kind[i]);
+            writeVarint(out, ast.token[i] - (i == 0 ? 0 : ast.token[i - 1]));
+            writeVarint(out, ast.nextSibling[i] < 0 ? 0 : ast.nextSibling[i] - i);
+        }
+        for(int i = 0; i < ast.tokens; i++){
+            out.write(ast.tokenKind[i]);
+            writeVarint(out, ast.line[i] - (i == 0 ? 0 : ast.line[i - 1]));
+            writeVarint(out, ast.column[i]);
+            writeVarint(out, images[i] + 1);
+        }
+        for(String string: strings){
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, utf8.length);
+            out.write(utf8);
+        }
+        out.flush();
+    }
+
+    //the value as an unsigned int, 7 bits in every byte from the lowest ones (a negative value takes 5 bytes, and is read back)
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while((value & ~0x7f) != 0){
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in){
+        byte first = in.get();
+        if(first >= 0) return first;            //almost every number
+        int value = first & 0x7f;
+        for(int shift = 7; shift < 35; shift += 7){
+            byte b = in.get();
+            value |= (b & 0x7f) << shift;
+            if(b >= 0) return value;
+        }
+        throw new IllegalStateException("a varint of more than 5 bytes");
+    }
+
+    //the Ast of a snapshot, or null if it is stale
+    //A snapshot that ends too soon throws a BufferUnderflowException (load takes it as stale too)
+    static Ast read(ByteBuffer in){
+        if(in.remaining() < HEADER || in.getInt() != MAGIC || in.getInt() != FORMAT) return null;
+        for(int i = 0; i < GRAMMAR.length; i++){
+            if(in.get() != GRAMMAR[i]) return null;
+        }
+        int nodes = in.getInt(), tokens = in.getInt(), count = in.getInt();
+        if(nodes < 0 || tokens < 0 || count < 0 || in.remaining() < (long) nodes * 3 + (long) tokens * 4 + count) return null;
+
+        Ast ast = new Ast(nodes, tokens);
+        ast.size = nodes;
+        ast.tokens = tokens;
+        int token = 0;
+        for(int i = 0; i < nodes; i++){
+            byte kind = in.get();
+            ast.kind[i] = (byte) (kind & ~HAS_CHILDREN);
+            ast.firstChild[i] = (kind & HAS_CHILDREN) != 0 ? i + 1 : -1;
+            token += readVarint(in);
+            ast.token[i] = token;
+            int sibling = readVarint(in);
+            ast.nextSibling[i] = sibling == 0 ? -1 : i + sibling;
+            if(token < 0 || token > tokens || ast.nextSibling[i] >= nodes || ast.firstChild[i] >= nodes) return null;
+        }
+
+        int[] images = new int[tokens];
+        int line = 0;
+        for(int i = 0; i < tokens; i++){
+            ast.tokenKind[i] = in.get();
+            line += readVarint(in);
+            ast.line[i] = line;
+            ast.column[i] = readVarint(in);
+            images[i] = readVarint(in) - 1;
+            if(images[i] < -1 || images[i] >= count) return null;
+        }
+
+        String[] strings = new String[count];
+        for(int i = 0; i < count; i++){
+            int length = readVarint(in);
+            if(length < 0 || in.remaining() < length) return null;
+            byte[] utf8 = new byte[length];
+            in.get(utf8);
+            strings[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        for(int i = 0; i < tokens; i++){
+            if(images[i] >= 0) ast.image[i] = strings[images[i]];
+        }
+        return ast;
+    }
+
+    public synchronized void printCounters(PrintStream err){
+        err.printf("snapshots: %d hits, %d misses, %d stale\n", hits, misses, stale);
+    }
+}
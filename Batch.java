@@ -0,0 +1,97 @@
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.*;
+
+//Batch checks many files in parallel, using a pool of worker threads
+//Every worker owns its own Checker (so its own parser, symbol table and visitors), and the output of every file
+//is kept in a buffer, so it can be printed in the same order as the files were given
+public class Batch {
+    private final int jobs;
+    private final ThreadLocal<Checker> checkers;
+
+    public Batch(int jobs, Options options){
+        this.jobs = jobs > 0 ? jobs : Runtime.getRuntime().availableProcessors();      //0 (or less) jobs means one worker per core
+        this.checkers = ThreadLocal.withInitial(() -> new Checker(options));
+    }
+
+    //the output of a single file
+    static class Result {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        boolean failed;
+    }
+
+    //checks every file and prints their results in order, returns the number of files that failed
+    public int run(List<String> files) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(jobs);
+        ArrayDeque<Future<Result>> pending = new ArrayDeque<Future<Result>>();
+        int window = jobs * 4;                      //only a few files can be waiting to be printed, so the buffers don't grow with the number of files
+        int next = 0;
+        int failed = 0;
+        long start = System.nanoTime();
+
+        try{
+            while(next < files.size() || !pending.isEmpty()){
+                while(next < files.size() && pending.size() < window){
+                    final String file = files.get(next++);
+                    pending.add(pool.submit(() -> checkFile(file)));
+                }
+
+                Result result;
+                try{
+                    result = pending.poll().get();
+                }
+                catch(ExecutionException ex){
+                    throw new IllegalStateException(ex.getCause());         //checkFile catches everything a file can cause, so this is a bug
+                }
+
+                System.out.write(result.out.toByteArray(), 0, result.out.size());
+                System.out.flush();
+                System.err.write(result.err.toByteArray(), 0, result.err.size());
+                System.err.flush();
+                if(result.failed) failed++;
+            }
+        }
+        finally{
+            pool.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("checked %d files (%d failed) in %.3f s with %d workers: %.1f files/sec\n",
+                files.size(), failed, seconds, jobs, files.size() / Math.max(seconds, 1e-9));
+        return failed;
+    }
+
+    //runs on a worker thread, with the worker's own Checker
+    private Result checkFile(String file){
+        Result result = new Result();
+        PrintStream out = new PrintStream(result.out);
+        PrintStream err = new PrintStream(result.err);
+
+        try{
+            checkers.get().checkFile(file, out, err);
+        }
+        catch(ParseException ex){
+            out.println(ex.getMessage());
+            result.failed = true;
+        }
+        catch(FileNotFoundException ex){
+            err.println(ex.getMessage());
+            result.failed = true;
+        }
+        catch(Exception ex){
+            result.failed = true;                   //the visitors have already printed the error
+        }
+        catch(TokenMgrError | StackOverflowError ex){
+            err.println(file + ": " + ex);             //a lexical error, or a program nested too deeply for the worker's stack
+            result.failed = true;
+        }
+
+        out.flush();
+        err.flush();
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+import java.nio.ByteBuffer;
+
+//ByteCharStream is a JavaCharStream that reads the program straight from a ByteBuffer (a memory mapped file, or a
+//wrapped byte[]), one byte per character, without a Reader to decode it and without copying it in char buffers
+//It works in the compact position mode of JavaCharStream, so it can only be used for programs that canRead accepts:
+//ascii text (the same in every charset) without unicode escapes. Checker decodes the rest, and reads them as chars
+public class ByteCharStream extends JavaCharStream {
+    private ByteBuffer bytes;
+    private char[] image = new char[256];       //GetImage copies the token here before making its String
+
+    public ByteCharStream(ByteBuffer bytes){
+        super(new char[0], 0);
+        ReInit(bytes);
+    }
+
+    public void ReInit(ByteBuffer bytes){
+        this.bytes = bytes.slice();             //so that the offsets start from 0
+        buffer = null;
+        initCompact(this.bytes.limit(), 1, 1);
+    }
+
+    //returns true if the bytes are all ascii, and have no backslash followed by a 'u'
+    public static boolean canRead(ByteBuffer bytes){
+        int start = bytes.position();
+        int end = bytes.limit();
+        for(int i = start; i < end; i++){
+            byte b = bytes.get(i);
+            if(b < 0) return false;
+            if(b == '\\' && i + 1 < end && bytes.get(i + 1) == 'u') return false;
+        }
+        return true;
+    }
+
+    @Override
+    public char BeginToken() throws java.io.IOException {
+        if(bufpos + 1 >= length){
+            tokenBegin = bufpos;
+            throw new java.io.IOException();
+        }
+        tokenBegin = ++bufpos;
+        return (char) bytes.get(bufpos);
+    }
+
+    @Override
+    public char readChar() throws java.io.IOException {
+        if(bufpos + 1 >= length)
+            throw new java.io.IOException();
+        return (char) bytes.get(++bufpos);
+    }
+
+    @Override
+    protected char compactChar(int offset){
+        return (char) bytes.get(offset);
+    }
+
+    @Override
+    public String GetImage(){
+        int count = bufpos - tokenBegin + 1;
+        if(count > image.length) image = new char[Math.max(count, image.length * 2)];
+        for(int i = 0; i < count; i++){
+            image[i] = (char) bytes.get(tokenBegin + i);
+        }
+        return new String(image, 0, count);
+    }
+
+    @Override
+    public char[] GetSuffix(int len){
+        char[] ret = new char[len];
+        for(int i = 0; i < len; i++){
+            ret[i] = (char) bytes.get(bufpos - len + 1 + i);
+        }
+        return ret;
+    }
+
+    @Override
+    public void Done(){
+        super.Done();
+        bytes = null;
+    }
+}
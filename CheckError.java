@@ -0,0 +1,9 @@
+//CheckError is the error that the visitors throw when the program has an error (it is printed by Diagnostics before it is thrown)
+//It has no stack trace: it is thrown through many accept calls, and the trace would only show the visitors, not the program
+public class CheckError extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public CheckError(String message){
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,312 @@
+import syntaxtree.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+//Checker runs the whole check of one file: parsing, FirstVisitor, SecondVisitor and the printing of the offsets
+//Each Checker keeps its own parser (reused with ReInit), so it must only be used by one thread at a time
+//All its lexers give the identifiers the symbols of options.symbols (which the Checkers of the other workers share), or of the
+//Symbols given to setSymbols
+public class Checker {
+    private final Options options;
+    private Symbols symbols;                //the Symbols of the identifiers of the next checks
+    private MiniJavaParser parser;          //created on the first check, and then reused for every next file
+    private MiniJavaParser fastParser;      //the parser that reads its tokens from lexer (only with --fast-lexer)
+    private FastTokenManager lexer;
+    private MiniJavaParser streamParser;    //the parser that reads from compactStream or byteStream
+    private MiniJavaParserTokenManager streamLexer;
+    private JavaCharStream compactStream;
+    private ByteCharStream byteStream;
+    private char[] chars = new char[4096];  //the whole program, when it is parsed in memory
+
+    public Checker(){
+        this(new Options());
+    }
+
+    public Checker(Options options){
+        this.options = options;
+        this.symbols = options.symbols;
+    }
+
+    //the next checks give the identifiers the symbols of the given Symbols
+    public void setSymbols(Symbols symbols){
+        this.symbols = symbols;
+    }
+
+    //checks the program given by the input stream, and prints its offsets in out (errors are printed in out too, by the visitors)
+    //throws ParseException if the program could not be parsed, and Exception if one of the visitors found an error
+    public void check(InputStream in, PrintStream out, PrintStream err) throws Exception {
+        check("<stdin>", () -> parse(in), out, err, err);
+    }
+
+    //checks the program in the file, reading it with a FileInputStream, or mapping it in memory (with --mmap)
+    //With --cache, the result is taken from the cache if the file didn't change since it was last checked
+    //With --snapshots, the tree is taken from the snapshot of the file, if it was parsed before
+    public void checkFile(String file, PrintStream out, PrintStream err) throws Exception {
+        if(options.cache != null){
+            checkCached(file, out, err);
+            return;
+        }
+        if(options.snapshots != null){
+            byte[] source;
+            try(FileInputStream fis = new FileInputStream(file)){
+                source = fis.readAllBytes();
+            }
+            check(file, () -> parseSnapshot(source), out, err, err);
+            return;
+        }
+
+        try(FileInputStream fis = new FileInputStream(file)){
+            if(!options.mmap){
+                check(file, () -> parse(fis), out, err, err);
+                return;
+            }
+
+            FileChannel channel = fis.getChannel();
+            check(file, () -> parseBytes(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())), out, err, err);
+        }
+    }
+
+    //the options that change the output of a check, as a part of its cache key (the other options only change how fast it is)
+    private static String cacheOptions(Options options){
+        StringBuilder key = new StringBuilder();
+        key.append(options.layout);
+        if(options.layoutReport) key.append(" report");
+        key.append(" ").append(options.maxErrors);
+        if(options.positions) key.append(" positions");
+        return key.toString();
+    }
+
+    //checks the file, or prints the result that the cache has for its contents
+    //The output of a check that is not in the cache is kept in buffers, so that it can be stored together with how the check ended
+    //Only the errors of the program are stored: any other exception (like a StackOverflowError) is thrown without storing anything
+    private void checkCached(String file, PrintStream out, PrintStream err) throws Exception {
+        byte[] source;
+        try(FileInputStream fis = new FileInputStream(file)){
+            source = fis.readAllBytes();
+        }
+
+        ResultCache cache = options.cache;
+        String key = cache.key(source, cacheOptions(options));
+        ResultCache.Result result = cache.get(key);
+        if(result == null){
+            result = new ResultCache.Result();
+            ByteArrayOutputStream bufferOut = new ByteArrayOutputStream();
+            ByteArrayOutputStream bufferErr = new ByteArrayOutputStream();
+            PrintStream checkOut = new PrintStream(bufferOut);
+            PrintStream checkErr = new PrintStream(bufferErr);
+
+            try{
+                check(file, () -> options.snapshots != null ? parseSnapshot(source) : parseBytes(ByteBuffer.wrap(source)), checkOut, checkErr, err);
+            }
+            catch(ParseException ex){
+                result.kind = ResultCache.PARSE_ERROR;
+                result.message = ex.getMessage();
+            }
+            catch(TokenMgrError ex){
+                result.kind = ResultCache.LEXICAL_ERROR;
+                result.message = ex.getMessage();
+            }
+            catch(Exception ex){
+                if(!(ex instanceof CheckError)){                //not an error of the visitors
+                    out.write(bufferOut.toByteArray());
+                    err.write(bufferErr.toByteArray());
+                    throw ex;
+                }
+                result.kind = ResultCache.CHECK_ERROR;
+                result.message = ex.getMessage();
+            }
+            finally{
+                checkOut.flush();
+                checkErr.flush();
+            }
+
+            result.out = bufferOut.toByteArray();
+            result.err = bufferErr.toByteArray();
+            cache.put(key, result);
+        }
+
+        result.replay(out, err);
+    }
+
+    //checks a program given as text
+    public void check(CharSequence source, PrintStream out, PrintStream err) throws Exception {
+        check("<source>", () -> {
+            int length = source.length();
+            if(chars.length < length) chars = new char[length];
+            if(source instanceof String){
+                ((String) source).getChars(0, length, chars, 0);
+            }else{
+                for(int i = 0; i < length; i++) chars[i] = source.charAt(i);
+            }
+            return parseChars(length, true);
+        }, out, err, err);
+    }
+
+    //checks a program given as bytes (in the default charset, like the files)
+    public void check(byte[] source, PrintStream out, PrintStream err) throws Exception {
+        check("<source>", () -> parseBytes(ByteBuffer.wrap(source)), out, err, err);
+    }
+
+    //the parsing of a program, from wherever it is read
+    private interface Parse {
+        Goal parse() throws Exception;
+    }
+
+    //runs every phase on the program, measuring them if --stats was given (the stats are printed in statsErr, even if a phase fails)
+    private void check(String name, Parse parse, PrintStream out, PrintStream err, PrintStream statsErr) throws Exception {
+        Stats stats = options.stats != null ? new Stats(name) : null;
+        Goal root = null;
+        symbolTable symTable = null;
+
+        try{
+            if(stats != null) stats.begin(Stats.PARSE);
+            root = parse.parse();
+            err.println("Program parsed successfully.");
+
+            if(stats != null) stats.begin(Stats.FIRST);
+            symTable = new symbolTable();
+            Diagnostics diagnostics = new Diagnostics(out, options.maxErrors, options.positions);
+            if(options.singlePass || options.parallel){
+                root.accept(new SinglePassVisitor(diagnostics, options.parallel), symTable);   //both visitors in one traversal (so the stats have no second phase)
+            }else{
+                FirstVisitor eval = new FirstVisitor(diagnostics);
+                root.accept(eval, symTable);                //FirstVisitor fills the symbol table, checks for double declarations, and builds the tables of each class
+
+                if(stats != null) stats.begin(Stats.SECOND);
+                SecondVisitor eval2 = new SecondVisitor(diagnostics);
+                root.accept(eval2, symTable);               //SecondVisitor used the filled symbol table, to find other error (like wrong assignments, wrong types etc.)
+            }
+            diagnostics.throwFirst();                       //the errors that didn't stop the checking (with --max-errors) are printed already
+
+            if(stats != null) stats.begin(Stats.OFFSETS);
+            symTable.buildLayouts(options.layout);
+            printOffsets(symTable, out);
+            if(options.layoutReport) ClassLayout.printReport(symTable, err);
+        }
+        finally{
+            if(stats != null){
+                stats.end();
+                if(root != null) stats.count(root);
+                if(symTable != null) stats.count(symTable);
+                if(options.stats.equals("json")){
+                    stats.printJson(statsErr);
+                }else stats.print(statsErr);
+            }
+        }
+    }
+
+    //prints the offset of each class (in order of declaration), making the layouts first if they are not made yet
+    static void printOffsets(symbolTable symTable, PrintStream out){
+        if(symTable.layoutMap == null) symTable.buildLayouts();
+
+        for(ClassLayout layout: symTable.layoutMap.values()){
+            layout.printOffsets(out);
+        }
+    }
+
+    //loads the tree of the program from its snapshot, or parses it and keeps its snapshot (a program with a parse error has none)
+    private Goal parseSnapshot(byte[] source) throws Exception {
+        Goal root = options.snapshots.load(source, symbols);
+        if(root == null){
+            root = parseBytes(ByteBuffer.wrap(source));
+            options.snapshots.store(source, root);
+        }
+        return root;
+    }
+
+    //parses the program of the input stream, in memory if one of the options needs it
+    private Goal parse(InputStream in) throws ParseException, IOException {
+        if(options.fastLexer || options.compactPositions){
+            return parseChars(readAll(new InputStreamReader(in)), options.compactPositions);    //the same (default) charset that JavaCharStream uses
+        }
+
+        if(parser == null){
+            parser = new MiniJavaParser(in);
+        }else parser.ReInit(in);
+        parser.token_source.symbols = symbols;
+
+        return parser.Goal();
+    }
+
+    //parses the program in chars[0..length) with the fast lexer, or with the generated one reading from a JavaCharStream
+    //in compact position mode (if compact), or from a Reader (the fast lexer can't read programs that may have unicode escapes)
+    private Goal parseChars(int length, boolean compact) throws ParseException {
+        if(options.fastLexer && FastTokenManager.canLex(chars, length)){
+            if(fastParser == null){
+                lexer = new FastTokenManager(chars, length);
+                fastParser = new MiniJavaParser(lexer);
+            }else{
+                lexer.ReInit(chars, length);
+                fastParser.ReInit(lexer);
+            }
+            lexer.symbols = symbols;
+            return fastParser.Goal();
+        }
+
+        if(compact){
+            if(compactStream == null){
+                compactStream = new JavaCharStream(chars, length);
+            }else compactStream.ReInit(chars, length);
+            return parseStream(compactStream);
+        }
+
+        if(parser == null){
+            parser = new MiniJavaParser(new CharArrayReader(chars, 0, length));
+        }else parser.ReInit(new CharArrayReader(chars, 0, length));
+        parser.token_source.symbols = symbols;
+        return parser.Goal();
+    }
+
+    //parses the program straight from the bytes if it is ascii (and the fast lexer is not used), else decodes it first
+    private Goal parseBytes(ByteBuffer bytes) throws ParseException {
+        if(!options.fastLexer && ByteCharStream.canRead(bytes)){
+            if(byteStream == null){
+                byteStream = new ByteCharStream(bytes);
+            }else byteStream.ReInit(bytes);
+            return parseStream(byteStream);
+        }
+
+        CharBuffer decoded = Charset.defaultCharset().decode(bytes);
+        int length = decoded.remaining();
+        if(chars.length < length) chars = new char[length];
+        decoded.get(chars, 0, length);
+        return parseChars(length, true);
+    }
+
+    //parses with the generated lexer, reading from the given stream
+    private Goal parseStream(JavaCharStream stream) throws ParseException {
+        if(streamParser == null){
+            streamLexer = new MiniJavaParserTokenManager(stream);
+            streamParser = new MiniJavaParser(streamLexer);
+        }else{
+            streamLexer.ReInit(stream);
+            streamParser.ReInit(streamLexer);
+        }
+        streamLexer.symbols = symbols;
+        return streamParser.Goal();
+    }
+
+    //reads the reader into chars (growing it if needed), returns the number of characters read
+    private int readAll(Reader reader) throws IOException {
+        int length = 0;
+        int count;
+        while((count = reader.read(chars, length, chars.length - length)) != -1){
+            length += count;
+            if(length == chars.length){
+                chars = java.util.Arrays.copyOf(chars, chars.length * 2);
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,182 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+//ClassLayout is the layout of the objects of a class: the offset of every field, the size of an object, and the vtable
+//The fields of a class start where the fields of its parent end (fieldBase), and its new methods (the ones that don't
+//override a method of a parent) get the vtable slots after the slots of its parent, so two classes that extend the same
+//class both start from the end of that class, and not from the end of each other
+//symbolTable.buildLayouts makes the layout of every class, after FirstVisitor has filled the symbol table
+//The fields of a class can be placed in three ways (--layout):
+//  DECLARATION  in the order of their declaration, without alignment (the offsets the course expects)
+//  ALIGNED      in the order of their declaration, every field aligned to its size
+//  PACKED       the 8 byte fields first, then the ints, then the booleans, every field aligned to its size and put in the
+//               first gap where it fits (the padding before a bigger field is filled with the smaller ones), which gives the
+//               smallest aligned object (never bigger than ALIGNED)
+//In every way the fields of the parent are a prefix of the object, so an object can be used as an object of its parent
+public class ClassLayout {
+    public static final int DECLARATION = 0, ALIGNED = 1, PACKED = 2;
+    static final String[] POLICIES = {"declaration", "aligned", "packed"};
+    static final int[] SIZES = {8, 4, 1};   //the sizes of the fields, largest first
+
+    public final Classes declaration;
+    public final int fieldBase;             //the offset of the first field of the class (the size of an object of the parent)
+    public final int size;                  //the size of the fields of an object, together with the fields of the parents
+    public final int vtableBase;            //the offset of the first new method of the class in the vtable
+    public final int vtableSize;            //the size of the vtable (8 bytes for every method)
+    final ArrayList<Variables> fields = new ArrayList<Variables>();        //the fields of the class (not of its parents), in the order of their offsets
+    final int[] offsets;                                                    //the offset of every field of fields
+    final ArrayList<Methods> methods = new ArrayList<Methods>();           //the new methods of the class, in the order of their slots
+
+    static final int POINTER = 8;           //the size of a reference (to an object or to an int[]), and of a vtable entry
+
+    ClassLayout(Classes declaration, ClassLayout parent, int policy){
+        this.declaration = declaration;
+        this.fieldBase = parent == null ? 0 : parent.size;
+        this.vtableBase = parent == null ? 0 : parent.vtableSize;
+        this.offsets = new int[declaration.variableMap.size()];
+
+        if(policy == PACKED){
+            this.size = pack(fieldBase);
+        }else{
+            int offset = fieldBase;
+            for(Variables field: declaration.variableMap.values()){
+                if(policy == ALIGNED) offset = align(offset, size(field.type));
+                offset = put(field, offset);
+            }
+            this.size = offset;
+        }
+
+        for(Methods method: declaration.methodMap.values()){
+            if(method.overrides == null && method.slot >= 0) methods.add(method);
+        }
+        this.vtableSize = declaration.vtable.size() * POINTER;
+    }
+
+    //places the fields packed, starting from offset, and returns the offset after the last one
+    //The fields go from the largest to the smallest (in the order of their declaration for the same size), every one at the
+    //first aligned offset of a gap where it fits, or else after the last field. The gaps are the padding before the first
+    //field that goes after the end of the parent (which can end anywhere), and what the smaller fields leave of it
+    //Since every size divides the bigger ones, the fields after the first one end where the next one can start, and a field
+    //in a gap never leaves a piece that a field of its size could have used, so no aligned placement ends before this one
+    private int pack(int offset){
+        ArrayList<int[]> gaps = new ArrayList<int[]>();         //the gaps, as {start, end}
+        ArrayList<Variables> placed = new ArrayList<Variables>();
+        ArrayList<Integer> at = new ArrayList<Integer>();        //the offset of every field of placed
+        for(int size: SIZES){
+            for(Variables field: declaration.variableMap.values()){
+                if(size(field.type) != size) continue;
+
+                int fieldOffset = -1;
+                for(int i = 0; i < gaps.size() && fieldOffset < 0; i++){
+                    int[] gap = gaps.get(i);
+                    int start = align(gap[0], size);
+                    if(start + size > gap[1]) continue;
+                    fieldOffset = start;
+                    gaps.remove(i);
+                    if(start + size < gap[1]) gaps.add(i, new int[]{start + size, gap[1]});
+                    if(gap[0] < start) gaps.add(i, new int[]{gap[0], start});
+                }
+                if(fieldOffset < 0){
+                    fieldOffset = align(offset, size);
+                    if(offset < fieldOffset) gaps.add(new int[]{offset, fieldOffset});
+                    offset = fieldOffset + size;
+                }
+                placed.add(field);
+                at.add(fieldOffset);
+            }
+        }
+
+        //fields is in the order of the offsets
+        Integer[] order = new Integer[placed.size()];
+        for(int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(at.get(a), at.get(b)));
+        for(int i: order) put(placed.get(i), at.get(i));
+        return offset;
+    }
+
+    //gives the field its offset, and returns the offset after it
+    private int put(Variables field, int offset){
+        offsets[fields.size()] = offset;
+        fields.add(field);
+        return offset + size(field.type);
+    }
+
+    static int align(int offset, int alignment){
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+
+    //the policy with the given name (of --layout), or -1 if there is no such policy
+    static int policy(String name){
+        for(int i = 0; i < POLICIES.length; i++){
+            if(POLICIES[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    //the size of a field of the type
+    static int size(TypeRef type){
+        if(type == TypeRef.BOOLEAN) return 1;
+        if(type == TypeRef.INT) return 4;
+        return POINTER;
+    }
+
+    //keeps the offsets of this layout in the fields (a symbol table has one layout, but printReport makes others too)
+    void apply(){
+        for(int i = 0; i < fields.size(); i++) fields.get(i).offset = offsets[i];
+    }
+
+    //the offset of a method in the vtable
+    public static int offset(Methods method){
+        return method.slot * POINTER;
+    }
+
+    //makes the layouts of all the classes, in the order of their declaration (a parent is always declared before the classes
+    //that extend it, so its layout is ready). Only the parent of a class that extends itself is not in the map, so it has no layout
+    static SymbolMap<ClassLayout> layout(symbolTable symTable, int policy){
+        SymbolMap<ClassLayout> layouts = new SymbolMap<ClassLayout>();
+        HashMap<Classes, ClassLayout> byClass = new HashMap<Classes, ClassLayout>();
+        for(Classes tmpClass: symTable.classMap.values()){
+            ClassLayout parent = tmpClass.parentClass == null ? null : byClass.get(tmpClass.parentClass);
+            ClassLayout layout = new ClassLayout(tmpClass, parent, policy);
+            byClass.put(tmpClass, layout);
+            layouts.put(tmpClass.symbol, layout);
+        }
+        return layouts;
+    }
+
+    //prints the offset of every field and of every new method of the class (nothing, if it has neither)
+    void printOffsets(PrintStream out){
+        String className = declaration.className;
+        for(int i = 0; i < fields.size(); i++){
+            out.print(className + "." + fields.get(i).variableName + " : " + offsets[i] + "\n");
+        }
+        for(Methods method: methods){
+            out.print(className + "." + method.methodName + " : " + offset(method) + "\n");
+        }
+    }
+
+    //prints, for every class with fields, the size of its objects in declaration order (without and with alignment) and packed,
+    //and how many bytes packing saves from the declaration order, and from the aligned declaration order (the sizes include
+    //the fields of the parents). Declaration order has no padding at all, so the first saving is the cost of the alignment
+    //(0 or negative), and the second one is what the packing gains (0 or positive, packed is never bigger than aligned)
+    static void printReport(symbolTable symTable, PrintStream err){
+        SymbolMap<ClassLayout> declared = layout(symTable, DECLARATION);
+        SymbolMap<ClassLayout> aligned = layout(symTable, ALIGNED);
+        SymbolMap<ClassLayout> packed = layout(symTable, PACKED);
+
+        int total = 0, totalAligned = 0;
+        for(Classes tmpClass: symTable.classMap.values()){
+            ClassLayout layout = packed.get(tmpClass.symbol);
+            if(layout.fields.isEmpty()) continue;
+            int saved = declared.get(tmpClass.symbol).size - layout.size;
+            int savedAligned = aligned.get(tmpClass.symbol).size - layout.size;
+            err.printf("layout: %s: %d bytes in declaration order (%d aligned), %d packed, %d saved (%d from aligned)\n", tmpClass.className,
+                    declared.get(tmpClass.symbol).size, aligned.get(tmpClass.symbol).size, layout.size, saved, savedAligned);
+            total += saved;
+            totalAligned += savedAligned;
+        }
+        err.printf("layout: %d bytes saved (%d from aligned)\n", total, totalAligned);
+    }
+}
@@ -0,0 +1,196 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+//CompileServer keeps running and checks programs on request, so the JVM startup and the JIT warmup are paid only once
+//Every session keeps the same Checker, so the parser is reused (with ReInit) for every request
+//Every request gets a new Symbols, so the names of the programs it checked are not kept after it
+//
+//Requests (one per line, of at most MAX_LINE bytes):
+//  check <path>        checks the file in <path>
+//  source <n>          checks the program given in the next <n> bytes (at most MAX_SOURCE)
+//  quit                ends the session
+//Every response contains the same output Main would print for the program, followed by the line:
+//  %%end <status> <microseconds>       (status is ok, error or bad-request)
+//A request that fails in any way gets an error response, and the session goes on with the next request
+public class CompileServer {
+    static final String END = "%%end";
+    static final int MAX_SOURCE = 16 * 1024 * 1024;       //the longest program that a source request can give (16 MB)
+    static final int MAX_LINE = 4096;                       //the longest request line (a path can't be much longer)
+
+    private final Checker checker;
+    private final PrintStream discard = new PrintStream(new OutputStream(){           //the "Program parsed successfully." messages are not sent back
+        public void write(int b){}
+        public void write(byte[] b, int off, int len){}
+    });
+    private boolean longLine;           //if the last line that readLine read was longer than MAX_LINE
+
+    public CompileServer(Options options){
+        this.checker = new Checker(options);
+    }
+
+    //serves the requests from in, until "quit" or the end of the input
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedInputStream bin = new BufferedInputStream(in);
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        PrintStream responseStream = new PrintStream(response);
+
+        String line;
+        while((line = readLine(bin)) != null){
+            line = line.trim();
+            if(line.isEmpty() && !longLine) continue;
+            if(line.equals("quit")) break;
+
+            long start = System.nanoTime();
+            response.reset();
+            checker.setSymbols(new Symbols());
+            String status;
+
+            if(longLine){
+                responseStream.println("error: the request is longer than " + MAX_LINE + " bytes");
+                status = "bad-request";
+            }else if(line.startsWith("check ")){
+                String path = line.substring(6).trim();
+                status = check(stream -> checker.checkFile(path, stream, discard), responseStream);
+            }else if(line.startsWith("source ")){
+                status = source(bin, parseLength(line.substring(7).trim()), responseStream);
+            }else status = "bad-request";
+
+            long micros = (System.nanoTime() - start) / 1000;
+            responseStream.println(END + " " + status + " " + micros);
+            responseStream.flush();
+            response.writeTo(out);
+            out.flush();
+        }
+    }
+
+    //reads the n bytes of a source request and checks them, returns the status of the response
+    //A length that is not a number, or that is more than MAX_SOURCE, is a bad request: the bytes of a long source are
+    //skipped without keeping them, so that the next request is read from the right place
+    private String source(InputStream in, int n, PrintStream out) throws IOException {
+        if(n < 0){
+            out.println("error: the length of the source must be a number from 0 to " + MAX_SOURCE);
+            return "bad-request";
+        }
+        if(n > MAX_SOURCE){
+            out.println("error: the source is longer than " + MAX_SOURCE + " bytes");
+            skipBytes(in, n);
+            return "bad-request";
+        }
+
+        byte[] source = readBytes(in, n);
+        if(source == null) return "bad-request";
+        return check(stream -> checker.check(source, stream, discard), out);
+    }
+
+    //a check of a file, or of a source text, that prints its output in out
+    private interface Request {
+        void check(PrintStream out) throws Exception;
+    }
+
+    //runs one request and prints its output in out, returns the status of the response
+    private String check(Request request, PrintStream out){
+        try{
+            request.check(out);
+            return "ok";
+        }
+        catch(FileNotFoundException ex){
+            out.println(ex.getMessage());
+        }
+        catch(ParseException ex){
+            out.println(ex.getMessage());
+        }
+        catch(TokenMgrError ex){
+            out.println(ex.getMessage());
+        }
+        catch(CheckError ex){
+            //the visitors have already printed the error
+        }
+        catch(Exception ex){
+            out.println("error: " + ex);
+        }
+        catch(StackOverflowError ex){
+            out.println("error: program is nested too deeply");
+        }
+        catch(OutOfMemoryError ex){
+            out.println("error: out of memory");
+        }
+        return "error";
+    }
+
+    //reads a line (without its "\n"), returns null at the end of the input
+    //A line longer than MAX_LINE is skipped up to its "\n" without keeping it (so a line that never ends can't fill the
+    //memory), and it is returned as "" with longLine set
+    private String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        longLine = false;
+        int c, length = 0;
+        while((c = in.read()) != -1 && c != '\n'){
+            if(++length > MAX_LINE){
+                longLine = true;
+                line.reset();
+            }else if(c != '\r') line.write(c);
+        }
+        if(c == -1 && length == 0) return null;
+        return new String(line.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    //returns -1 if the length of a source request is not a number
+    private static int parseLength(String length){
+        try{
+            return Integer.parseInt(length);
+        }
+        catch(NumberFormatException ex){
+            return -1;
+        }
+    }
+
+    //reads exactly n bytes, returns null if the input ends before that
+    private static byte[] readBytes(InputStream in, int n) throws IOException {
+        byte[] bytes = new byte[n];
+        int read = 0;
+        while(read < n){
+            int count = in.read(bytes, read, n - read);
+            if(count == -1) return null;
+            read += count;
+        }
+        return bytes;
+    }
+
+    //reads n bytes and forgets them (skip() does not work on a pipe), stops at the end of the input
+    private static void skipBytes(InputStream in, int n) throws IOException {
+        byte[] buffer = new byte[8192];
+        while(n > 0){
+            int count = in.read(buffer, 0, Math.min(n, buffer.length));
+            if(count == -1) return;
+            n -= count;
+        }
+    }
+
+    //serves requests from stdin, and answers in stdout
+    public static void serveStdio(Options options) throws IOException {
+        new CompileServer(options).serve(System.in, System.out);
+    }
+
+    //serves requests from local connections (only from the loopback address), every connection gets its own session
+    public static void servePort(int port, Options options) throws IOException {
+        try(ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())){
+            System.err.println("Listening on " + server.getLocalSocketAddress());
+            while(true){
+                final Socket socket = server.accept();
+                Thread session = new Thread(() -> {
+                    try(Socket s = socket){
+                        new CompileServer(options).serve(s.getInputStream(), s.getOutputStream());
+                    }
+                    catch(IOException ex){
+                        System.err.println(ex.getMessage());
+                    }
+                });
+                session.setDaemon(true);
+                session.start();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import syntaxtree.Node;
+import syntaxtree.NodeToken;
+import visitor.DepthFirstVisitor;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+//Diagnostics keeps the errors that the visitors find in one program. Every error is printed in out when it is reported (with its
+//line and column in front, if positions is set), and the visitor throws the CheckError that report returns
+//SecondVisitor catches it at the end of the statement (or of the declaration) and goes on with the next one, until limit errors
+//have been found, and then the error is thrown on and the checking stops. With the default limit (1) the first error stops the
+//checking, like it always did. When the checking ends, throwFirst throws the first error, so a program with errors still fails
+public class Diagnostics {
+    //an error, and the position of the first token of the node where it was found (-1 if it is not known)
+    public static class Diagnostic {
+        public final int line, column;
+        public final String text;               //what is printed (the message of the error, in the words of the visitor)
+        public final CheckError error;
+
+        Diagnostic(int line, int column, String text, CheckError error){
+            this.line = line;
+            this.column = column;
+            this.text = text;
+            this.error = error;
+        }
+    }
+
+    final PrintStream out;                      //where the errors are printed (null if they are only kept, see SinglePassVisitor)
+    final int limit;                            //how many errors stop the checking (0 means no limit)
+    final boolean positions;
+    final ArrayList<Diagnostic> errors = new ArrayList<Diagnostic>();
+
+    public Diagnostics(PrintStream out){
+        this(out, 1, false);
+    }
+
+    public Diagnostics(PrintStream out, int limit, boolean positions){
+        this.out = out;
+        this.limit = limit;
+        this.positions = positions;
+    }
+
+    //keeps and prints the error that was found at the node, and returns the CheckError that the visitor throws
+    public CheckError report(Node at, String text, String message){
+        NodeToken token = at == null ? null : firstToken(at);
+        if(token == null) return add(new Diagnostic(-1, -1, text, new CheckError(message)));
+        return add(new Diagnostic(token.beginLine, token.beginColumn, text, new CheckError(message)));
+    }
+
+    //keeps and prints an error (also one that another Diagnostics kept)
+    public CheckError add(Diagnostic diagnostic){
+        errors.add(diagnostic);
+        if(out != null){
+            if(positions && diagnostic.line >= 0) out.print(diagnostic.line + ":" + diagnostic.column + ": ");
+            out.print(diagnostic.text);
+            if(limit > 1 && errors.size() == limit) out.printf("too many errors (%d), the checking stopped\n", limit);
+        }
+        return diagnostic.error;
+    }
+
+    //true when no more errors can be reported, so the checking must stop
+    public boolean full(){
+        return limit > 0 && errors.size() >= limit;
+    }
+
+    public int count(){
+        return errors.size();
+    }
+
+    //throws the first error, if there was one
+    public void throwFirst() throws CheckError {
+        if(!errors.isEmpty()) throw errors.get(0).error;
+    }
+
+    //thrown to stop the walk of firstToken at the first token
+    private static final Exception FOUND = new Exception(null, null, false, false){};
+
+    //the first token of the node (the walk stops there, so it is cheap even for a statement with a big body)
+    static NodeToken firstToken(Node node){
+        NodeToken[] first = new NodeToken[1];
+        try{
+            node.accept(new DepthFirstVisitor(){
+                @Override
+                public void visit(NodeToken n) throws Exception {
+                    first[0] = n;
+                    throw FOUND;
+                }
+            });
+        }
+        catch(Exception ex){
+            //FOUND (accept throws nothing else)
+        }
+        return first[0];
+    }
+}
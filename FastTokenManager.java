@@ -0,0 +1,289 @@
+//FastTokenManager is a hand written lexer for the MiniJava tokens, that MiniJavaParser can use instead of the generated
+//MiniJavaParserTokenManager (the parser itself is unchanged, it just gets this token manager in its constructor)
+//Instead of the generated NFA, it works directly on a char array with the whole program, decides every token by a
+//switch on its first character, and recognizes the keywords with a perfect hash. Only identifiers, integer literals
+//and comments get a new String as their image, the rest use the constant images of jjstrLiteralImages
+//Every identifier gets the symbol of its name (and the String of the name as its image) from the Symbols of the generated
+//lexer, like CommonTokenAction does there
+//It gives exactly the same tokens (kinds, images, positions and comments as special tokens) as the generated lexer,
+//but it doesn't translate unicode escapes (backslash-u sequences), so programs with a backslash must use the generated one
+public class FastTokenManager extends MiniJavaParserTokenManager {
+    private static final String PRINT_IMAGE = jjstrLiteralImages[PRINT];     //"System.out.println" is a single token
+    private static final int TAB_SIZE = 8;                                      //same as JavaCharStream
+
+    //the character classes of the ascii characters
+    private static final byte OTHER = 0, SPACE = 1, LETTER = 2, DIGIT = 3;
+    private static final byte[] asciiClass = new byte[128];
+
+    //keyword kinds, indexed by keywordHash (-1 if no keyword has that hash)
+    private static final int[] keywordTable = new int[64];
+    private static final int[] KEYWORDS = {BOOLEAN, CLASS, INTERFACE, ELSE, EXTENDS, FALSE, IF, WHILE, INTEGER, LENGTH,
+                                           MAIN, NEW, PUBLIC, RETURN, STATIC, STRING, THIS, TRUE, VOID};
+
+    static {
+        asciiClass[' '] = asciiClass['\t'] = asciiClass['\n'] = asciiClass['\r'] = asciiClass['\f'] = SPACE;
+        asciiClass['$'] = asciiClass['_'] = LETTER;
+        for(char c = 'a'; c <= 'z'; c++) asciiClass[c] = LETTER;
+        for(char c = 'A'; c <= 'Z'; c++) asciiClass[c] = LETTER;
+        for(char c = '0'; c <= '9'; c++) asciiClass[c] = DIGIT;
+
+        java.util.Arrays.fill(keywordTable, -1);
+        for(int kind: KEYWORDS){
+            String image = jjstrLiteralImages[kind];
+            int hash = keywordHash(image.charAt(0), image.charAt(image.length() - 1), image.length());
+            if(keywordTable[hash] != -1)
+                throw new Error("keywordHash is not perfect for the MiniJava keywords");
+            keywordTable[hash] = kind;
+        }
+    }
+
+    private char[] buf;
+    private int end;            //buf[0..end) holds the program
+    private int pos;            //the next character to read
+    private int line;           //line and column of the last character read, counted like JavaCharStream counts them
+    private int column;
+    private boolean prevCR;
+    private boolean prevLF;
+
+    public FastTokenManager(char[] buf, int length){
+        super(null);
+        ReInit(buf, length);
+    }
+
+    public void ReInit(char[] buf, int length){
+        this.buf = buf;
+        this.end = length;
+        this.pos = 0;
+        this.line = 1;
+        this.column = 0;
+        this.prevCR = false;
+        this.prevLF = false;
+    }
+
+    //returns false if the program contains a backslash (so maybe unicode escapes), which only the generated lexer handles
+    public static boolean canLex(char[] buf, int length){
+        for(int i = 0; i < length; i++){
+            if(buf[i] == '\\') return false;
+        }
+        return true;
+    }
+
+    private static int keywordHash(char first, char last, int length){
+        return (first + 3 * last + length) & 63;
+    }
+
+    //moves the position over one character (the same as JavaCharStream.UpdateLineColumn)
+    private void advance(char c){
+        column++;
+        if(prevLF){
+            prevLF = false;
+            line += (column = 1);
+        }else if(prevCR){
+            prevCR = false;
+            if(c == '\n'){
+                prevLF = true;
+            }else line += (column = 1);
+        }
+
+        if(c == '\r'){
+            prevCR = true;
+        }else if(c == '\n'){
+            prevLF = true;
+        }else if(c == '\t'){
+            column--;
+            column += (TAB_SIZE - (column % TAB_SIZE));
+        }
+    }
+
+    //moves the position over characters that are not line terminators or tabs
+    private void advancePlain(int count){
+        advance(buf[pos]);
+        column += count - 1;
+        pos += count;
+    }
+
+    private static boolean isLetter(char c){
+        if(c < 128) return asciiClass[c] == LETTER;
+        return (c >= '\u00c0' && c <= '\u00d6') || (c >= '\u00d8' && c <= '\u00f6') || (c >= '\u00f8' && c <= '\u1fff')
+            || (c >= '\u3040' && c <= '\u318f') || (c >= '\u3300' && c <= '\u337f') || (c >= '\u3400' && c <= '\u3d2d')
+            || (c >= '\u4e00' && c <= '\u9fff') || (c >= '\uf900' && c <= '\ufaff');
+    }
+
+    //every DIGIT outside the ascii ones is inside a LETTER range too
+    private static boolean isIdentifierPart(char c){
+        if(c < 128) return asciiClass[c] >= LETTER;
+        return isLetter(c);
+    }
+
+    private Token token(int kind, String image, int beginLine, int beginColumn){
+        Token t = Token.newToken(kind, image);
+        t.beginLine = beginLine;
+        t.beginColumn = beginColumn;
+        t.endLine = line;
+        t.endColumn = column;
+        return t;
+    }
+
+    @Override
+    public Token getNextToken(){
+        Token specialToken = null;
+
+        for(;;){
+            //white space
+            while(pos < end && buf[pos] < 128 && asciiClass[buf[pos]] == SPACE){
+                advance(buf[pos++]);
+            }
+
+            if(pos == end){
+                Token eof = token(EOF, "", line, column);
+                eof.specialToken = specialToken;
+                return eof;
+            }
+
+            char c = buf[pos];
+            int start = pos;
+            int kind;
+
+            advance(c);
+            pos++;
+            int beginLine = line;
+            int beginColumn = column;
+
+            switch(c){
+                case '(': kind = LPAREN; break;
+                case ')': kind = RPAREN; break;
+                case '[': kind = LSQPAREN; break;
+                case ']': kind = RSQPAREN; break;
+                case '{': kind = LBRACE; break;
+                case '}': kind = RBRACE; break;
+                case ';': kind = SEMICOLON; break;
+                case '.': kind = DOT; break;
+                case '=': kind = ASSIGN; break;
+                case '<': kind = LT; break;
+                case '+': kind = PLUS; break;
+                case '-': kind = MINUS; break;
+                case '!': kind = NOT; break;
+                case ',': kind = COMMA; break;
+                case '*': kind = TIMES; break;
+                case '&':
+                    if(pos < end && buf[pos] == '&'){
+                        advancePlain(1);
+                        kind = AND;
+                        break;
+                    }
+                    throw lexicalError();
+                case '/':
+                    Token comment = comment(start, beginLine, beginColumn);
+                    if(specialToken != null){
+                        comment.specialToken = specialToken;
+                        specialToken.next = comment;
+                    }
+                    specialToken = comment;
+                    continue;
+                case '0':
+                    return withSpecial(token(INTEGER_LITERAL, "0", beginLine, beginColumn), specialToken);
+                default:
+                    if(c >= '1' && c <= '9'){
+                        int stop = pos;
+                        while(stop < end && buf[stop] >= '0' && buf[stop] <= '9') stop++;
+                        if(stop > pos) advancePlain(stop - pos);
+                        return withSpecial(token(INTEGER_LITERAL, new String(buf, start, pos - start), beginLine, beginColumn), specialToken);
+                    }
+                    if(isLetter(c)){
+                        return withSpecial(identifierOrKeyword(start, beginLine, beginColumn), specialToken);
+                    }
+                    throw lexicalError();
+            }
+            return withSpecial(token(kind, jjstrLiteralImages[kind], beginLine, beginColumn), specialToken);
+        }
+    }
+
+    //the comments before a token are linked to it as its special tokens (the same way the generated lexer does it)
+    private static Token withSpecial(Token t, Token specialToken){
+        t.specialToken = specialToken;
+        return t;
+    }
+
+    //the first character of the identifier has already been read
+    private Token identifierOrKeyword(int start, int beginLine, int beginColumn){
+        //"System.out.println" is longer than any identifier it starts with, so it always wins
+        if(buf[start] == 'S' && matches(start, PRINT_IMAGE)){
+            advancePlain(PRINT_IMAGE.length() - 1);
+            return token(PRINT, PRINT_IMAGE, beginLine, beginColumn);
+        }
+
+        int stop = pos;
+        while(stop < end && isIdentifierPart(buf[stop])) stop++;
+        if(stop > pos) advancePlain(stop - pos);
+
+        int length = pos - start;
+        int kind = keywordTable[keywordHash(buf[start], buf[pos - 1], length)];
+        if(kind != -1 && matches(start, jjstrLiteralImages[kind]) && jjstrLiteralImages[kind].length() == length){
+            return token(kind, jjstrLiteralImages[kind], beginLine, beginColumn);
+        }
+        Token t = token(IDENTIFIER, new String(buf, start, length), beginLine, beginColumn);
+        t.symbol = symbols.intern(t.image);
+        t.image = symbols.name(t.symbol);
+        return t;
+    }
+
+    //checks if the program has the given image at start
+    private boolean matches(int start, String image){
+        int length = image.length();
+        if(end - start < length) return false;
+        for(int i = 0; i < length; i++){
+            if(buf[start + i] != image.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    //the "/" has already been read
+    private Token comment(int start, int beginLine, int beginColumn){
+        if(pos < end && buf[pos] == '/'){
+            //a single line comment includes its line terminator (and it must have one)
+            while(pos < end && buf[pos] != '\n' && buf[pos] != '\r') advance(buf[pos++]);
+            if(pos == end) throw lexicalError();
+            char terminator = buf[pos];
+            advance(buf[pos++]);
+            if(terminator == '\r' && pos < end && buf[pos] == '\n') advance(buf[pos++]);
+            return token(SINGLE_LINE_COMMENT, new String(buf, start, pos - start), beginLine, beginColumn);
+        }
+
+        if(pos < end && buf[pos] == '*'){
+            //a formal comment ("/**" ... "*/") is matched before a multi line one of the same length, and since its
+            //closing "*" can't be the one in "/**", "/**/" only ends a multi line comment if no formal one ends later
+            boolean formal = start + 2 < end && buf[start + 2] == '*';
+            int close = closingStar(formal ? start + 3 : start + 2);
+            if(close == -1){
+                if(!formal || start + 3 >= end || buf[start + 3] != '/') throw lexicalError();
+                formal = false;
+                close = start + 2;
+            }
+            while(pos <= close + 1) advance(buf[pos++]);
+            return token(formal ? FORMAL_COMMENT : MULTI_LINE_COMMENT, new String(buf, start, pos - start), beginLine, beginColumn);
+        }
+
+        throw lexicalError();
+    }
+
+    //returns the index of the first "*" at or after from that is followed by a "/", or -1
+    private int closingStar(int from){
+        for(int i = from; i + 1 < end; i++){
+            if(buf[i] == '*' && buf[i + 1] == '/') return i;
+        }
+        return -1;
+    }
+
+    //lexical errors are rare, so instead of copying how far the generated lexer reads before it reports one
+    //(which decides the position and the text of the error), the program is lexed again by the generated lexer
+    private TokenMgrError lexicalError(){
+        MiniJavaParserTokenManager generated = new MiniJavaParserTokenManager(new JavaCharStream(new java.io.CharArrayReader(buf, 0, end)));
+        try{
+            while(generated.getNextToken().kind != EOF);
+        }
+        catch(TokenMgrError ex){
+            return ex;
+        }
+        return new TokenMgrError("Lexical error at line " + line + ", column " + column, TokenMgrError.LEXICAL_ERROR);
+    }
+}
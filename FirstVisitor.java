@@ -1,10 +1,42 @@
 import syntaxtree.*;
 import visitor.*;
+import java.io.PrintStream;
+import java.util.Arrays;
 
-//FirstVisitor fills the symbol table, checks for double declarations, and calculates the offset of each class
-public class FirstVisitor extends GJDepthFirst<String, symbolTable>{
+//FirstVisitor fills the symbol table, checks for double declarations, and builds the field and method tables of each class
+//(the offsets are calculated from those tables by ClassLayout)
+//The names are added to the symbol table with the symbols that the lexer gave their tokens (NodeToken.symbol, see Symbols)
+public class FirstVisitor extends GJSwitchDepthFirst<String, symbolTable>{
     public Classes currentClass;            //keeps the track of which class the program is currently checking
     public Methods currentMethod;           //keeps the track of which method the program is currently checking (null if the checking is outside of a method)
+    Diagnostics diagnostics;                //where the errors get reported (and printed). An error of FirstVisitor always stops the checking
+
+    public FirstVisitor(){
+        this(System.out);
+    }
+
+    public FirstVisitor(PrintStream out){
+        this(new Diagnostics(out));
+    }
+
+    public FirstVisitor(Diagnostics diagnostics){
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * f0 -> MainClass()
+     * f1 -> ( TypeDeclaration() )*
+     * f2 -> <EOF>
+     */
+    @Override
+    public String visit(Goal n, symbolTable symTable) throws Exception {
+        dispatch(n.f0, symTable);
+        dispatch(n.f1, symTable);
+
+        //every class has been added, so the hierarchy index can be made for the subtype checks of SecondVisitor
+        symTable.buildHierarchy();
+        return null;
+    }
 
     /**
      * f0 -> "class"
@@ -28,29 +60,24 @@ public class FirstVisitor extends GJDepthFirst<String, symbolTable>{
      */
     @Override
     public String visit(MainClass n, symbolTable symTable) throws Exception {
-        String className = n.f1.accept(this, symTable);
-        if(symTable.addClass(className, null) == null){
-            System.out.printf("error: '%s' class has already been declared!\n", className);
-            throw new Exception("error: "+ className + " class has already been declared!");
+        String className = dispatch(n.f1, symTable);
+        if(symTable.addClass(n.f1.f0.symbol, className, null) == null){
+            throw diagnostics.report(n.f1, String.format("error: '%s' class has already been declared!\n", className), "error: "+ className + " class has already been declared!");
         }
         //currentClass is updated, so we know what class we are currently checking
-        currentClass = symTable.getClass(className);
-
-        //create offset for the new class, and put it in the offset Hash Map
-        offset classOffset = new offset(className);
-        symTable.offsetMap.put(className, classOffset);
+        currentClass = symTable.getClass(n.f1.f0.symbol);
 
-        String methodReturns = n.f5.toString();
-        String methodName = n.f6.toString();            //will always be "main"
-        if(currentClass.addMethod(methodName, methodReturns) == null){
-            System.out.print("error: Main method has already been declared!\n");
-            throw new Exception("error: Main method has already been declared!");
+        String methodName = n.f6.toString();            //will always be "main" (a keyword, so it has the symbol Symbols.MAIN)
+        if(currentClass.addMethod(Symbols.MAIN, methodName, TypeRef.VOID) == null){
+            throw diagnostics.report(n.f6, "error: Main method has already been declared!\n", "error: Main method has already been declared!");
         }
         //currentMethod is updated, so we know what method we are currently checking
-        currentMethod = currentClass.getMethod(methodName);
+        currentMethod = currentClass.getMethod(Symbols.MAIN);
 
-        n.f11.accept(this, symTable);
-        n.f14.accept(this, symTable);
+        dispatch(n.f11, symTable);
+        dispatch(n.f14, symTable);
+        currentClass.buildFieldTable();
+        currentClass.buildMethodTable();
 
 	currentClass = null;
 	currentMethod = null;
@@ -68,19 +95,17 @@ public class FirstVisitor extends GJDepthFirst<String, symbolTable>{
      */
     @Override
     public String visit(ClassDeclaration n, symbolTable symTable) throws Exception {
-        String className = n.f1.accept(this, symTable);
-        if(symTable.addClass(className, null) == null) {
-            System.out.printf("error: '%s' class has already been declared\n", className);
-            throw new Exception("error: " + className + " class has already been declared!");
+        String className = dispatch(n.f1, symTable);
+        if(symTable.addClass(n.f1.f0.symbol, className, null) == null) {
+            throw diagnostics.report(n.f1, String.format("error: '%s' class has already been declared\n", className), "error: " + className + " class has already been declared!");
         }
 
-        offset classOffset = new offset(className);
-        symTable.offsetMap.put(className, classOffset);
+        currentClass = symTable.getClass(n.f1.f0.symbol);
 
-        currentClass = symTable.getClass(className);
-
-	n.f3.accept(this, symTable);
-	n.f4.accept(this, symTable);
+	dispatch(n.f3, symTable);
+	dispatch(n.f4, symTable);
+        currentClass.buildFieldTable();                 //all the fields and methods of the class have been declared
+        currentClass.buildMethodTable();
 
 	currentClass = null;
 	currentMethod = null;
@@ -100,27 +125,24 @@ public class FirstVisitor extends GJDepthFirst<String, symbolTable>{
      */
     @Override
     public String visit(ClassExtendsDeclaration n, symbolTable symTable) throws Exception {
-        String className = n.f1.accept(this, symTable);
-        String parentName = n.f3.accept(this, symTable);
+        String className = dispatch(n.f1, symTable);
+        String parentName = dispatch(n.f3, symTable);
 
-        if(symTable.addClass(className, null) == null) {
-            System.out.printf("error '%s' class has already been declared\n", className);
-            throw new Exception("error: " + className + " class has already been declared!");
+        if(symTable.addClass(n.f1.f0.symbol, className, null) == null) {
+            throw diagnostics.report(n.f1, String.format("error '%s' class has already been declared\n", className), "error: " + className + " class has already been declared!");
         }
 
         //check to see if parent class has not been declared yet. If it has, add it as parent class to the current class
-        if(symTable.addClassExtension(className, parentName) == null) {
-            System.out.printf("error: '%s' (parent class) for '%s' has not been declared!\n", parentName, className);
-            throw new Exception("error: " + parentName  + " (parent class) for " + className + " has not been declared!");
+        if(symTable.addClassExtension(n.f1.f0.symbol, className, n.f3.f0.symbol) == null) {
+            throw diagnostics.report(n.f3, String.format("error: '%s' (parent class) for '%s' has not been declared!\n", parentName, className), "error: " + parentName  + " (parent class) for " + className + " has not been declared!");
         }
 
-        currentClass = symTable.getClass(className);
-        offset classOffset = new offset(className);
-        symTable.offsetMap.put(className, classOffset);
-
-	n.f5.accept(this, symTable);
-	n.f6.accept(this, symTable);
+        currentClass = symTable.getClass(n.f1.f0.symbol);
 
+	dispatch(n.f5, symTable);
+	dispatch(n.f6, symTable);
+        currentClass.buildFieldTable();                 //all the fields and methods of the class have been declared
+        currentClass.buildMethodTable();
 
 	currentClass = null;
 	currentMethod = null;
@@ -145,77 +167,50 @@ public class FirstVisitor extends GJDepthFirst<String, symbolTable>{
      */
     @Override
     public String visit(MethodDeclaration n, symbolTable symTable) throws Exception {
-	String methodType = n.f1.accept(this, symTable);
-        String methodName = n.f2.accept(this, symTable);
+	TypeRef methodType = type(n.f1, symTable);
+        String methodName = dispatch(n.f2, symTable);
+        int methodSymbol = n.f2.f0.symbol;
 
-        if(currentClass.addMethod(methodName, methodType) == null){
-            System.out.printf("error: '%s' method has already been declared in '%s' class \n", methodName, currentClass.className);
-            throw new Exception("error: " + methodName + " method has already been declared in " + currentClass.className + " class!");
+        if(currentClass.addMethod(methodSymbol, methodName, methodType) == null){
+            throw diagnostics.report(n.f2, String.format("error: '%s' method has already been declared in '%s' class \n", methodName, currentClass.className), "error: " + methodName + " method has already been declared in " + currentClass.className + " class!");
         }
-        currentMethod = currentClass.getMethod(methodName);
-        String argumentList = n.f4.present() ? n.f4.accept(this, symTable) : "";
+        currentMethod = currentClass.getMethod(methodSymbol);
+        dispatch(n.f4, symTable);
+        currentMethod.buildParameters();
 
         //this block of code is here to check if current method is overriding a method from a parent class
-        int isOverriding = 0;
-        Classes parentClass;
-        argumentList = currentMethod.parameterTypeMap.toString();
+        //the method table of the parent has the methods of every ancestor, so one lookup finds the method that would be overridden
         if(currentClass.parentClass != null) {
-            Classes tmpClass = currentClass;
-            parentClass = currentClass.parentClass;
-            while(tmpClass != null){
-                Methods parentMethod = parentClass.getMethod(methodName);
-                if(parentMethod != null){
-                    String argumentList2 = parentMethod.parameterTypeMap.toString();
-                    if(parentMethod.methodName.equals(currentMethod.methodName)){
-                        if(!argumentList.equals(argumentList2)){
-                            System.out.printf("error: '%s' method has already been declared in '%s' class and is not overriding\n", methodName, parentClass.className);
-                            throw new Exception("error: " + methodName + " method has already been declared in " + parentClass.className + " class and is not overriding!");
-                        }else isOverriding = 1;
-                    }
-                }
-                parentClass = parentClass.parentClass;
-                tmpClass = parentClass;
-            }
-        }
-
-        //if method is not overriding, then it must be included in class's offset
-        if(isOverriding == 0){
-            String parentClassName = currentClass.className;
-            Classes tmpClass = currentClass;
-
-            if(currentClass.parentClass != null){
-                parentClassName = tmpClass.parentClass.className;
-                while(tmpClass.parentClass != null){
-                    parentClassName = tmpClass.parentClass.className;
-                    tmpClass = tmpClass.parentClass;
+            Methods parentMethod = currentClass.parentClass.lookupMethod(methodSymbol);
+            if(parentMethod != null){
+                if(!Arrays.equals(currentMethod.parameterTypes, parentMethod.parameterTypes)){  //the types are compared one by one, as objects
+                    throw diagnostics.report(n.f2, String.format("error: '%s' method has already been declared in '%s' class and is not overriding\n", methodName, parentMethod.owner.className), "error: " + methodName + " method has already been declared in " + parentMethod.owner.className + " class and is not overriding!");
                 }
             }
-
-            offset tmpOffset = symTable.offsetMap.get(currentClass.className);
-            offset parentOffset = symTable.offsetMap.get(parentClassName);
-
-            tmpOffset.addPrint(currentClass.className + "." + currentMethod.methodName+ " : " + parentOffset.methodOffset + "\n");
-
-            parentOffset.methodOffset += 8;
         }
 
-        n.f7.accept(this, symTable);
-	n.f8.accept(this, symTable);
+        dispatch(n.f7, symTable);
+        methodBody(n, symTable);
 
 	currentMethod = null;
         return null;
     }
 
+    //the statements of a method don't declare anything, so FirstVisitor only walks them (SinglePassVisitor keeps them for later)
+    protected void methodBody(MethodDeclaration n, symbolTable symTable) throws Exception {
+        dispatch(n.f8, symTable);
+    }
+
     /**
      * f0 -> FormalParameter()
      * f1 -> FormalParameterTail()
      */
     @Override
     public String visit(FormalParameterList n, symbolTable symTable) throws Exception {
-        String ret = n.f0.accept(this, null);
+        String ret = dispatch(n.f0, symTable);
 
         if (n.f1 != null) {
-            ret += n.f1.accept(this, null);
+            ret += dispatch(n.f1, symTable);
         }
 
         return ret;
@@ -226,7 +221,7 @@ public class FirstVisitor extends GJDepthFirst<String, symbolTable>{
      * f1 -> FormalParameterTail()
      */
     public String visit(FormalParameterTerm n, symbolTable symTable) throws Exception {
-        return n.f1.accept(this, symTable);
+        return dispatch(n.f1, symTable);
     }
 
     /**
@@ -237,7 +232,7 @@ public class FirstVisitor extends GJDepthFirst<String, symbolTable>{
     public String visit(FormalParameterTail n, symbolTable symTable) throws Exception {
         String ret = "";
         for ( Node node: n.f0.nodes) {
-            ret += ", " + node.accept(this, null);
+            ret += ", " + dispatch(node, symTable);
         }
 
         return ret;
@@ -249,14 +244,11 @@ public class FirstVisitor extends GJDepthFirst<String, symbolTable>{
      */
     @Override
     public String visit(FormalParameter n, symbolTable symTable) throws Exception{
-        String type = n.f0.accept(this, null);
-        String name = n.f1.accept(this, null);
-        if(currentMethod.addParameter(name, type) == null){
-            System.out.printf("error: '%s' variable has already been declared in parameter list of '%s' method!\n", name, currentMethod.methodName);
-            throw new Exception("error: "+ name+" variable has already been declared in parameter list of " + currentMethod.methodName + " method!");
+        TypeRef type = type(n.f0, symTable);
+        String name = dispatch(n.f1, symTable);
+        if(currentMethod.addParameter(n.f1.f0.symbol, name, type) == null){
+            throw diagnostics.report(n.f1, String.format("error: '%s' variable has already been declared in parameter list of '%s' method!\n", name, currentMethod.methodName), "error: "+ name+" variable has already been declared in parameter list of " + currentMethod.methodName + " method!");
         }
-        currentMethod.parameterTypeMap.add(type);
-        currentMethod.parameterMap.put(name, type);
         return type + " " + name;
     }
 
@@ -267,54 +259,34 @@ public class FirstVisitor extends GJDepthFirst<String, symbolTable>{
     */
 	@Override
 	public String visit(VarDeclaration n, symbolTable symTable) throws Exception {
-      String variableType = n.f0.accept(this, symTable);
-      String variableName = n.f1.accept(this, symTable);
+      TypeRef variableType = type(n.f0, symTable);
+      String variableName = dispatch(n.f1, symTable);
 
       if(currentMethod == null){                                    //if the variable is declared outside of a method
-          if(currentClass.addVariable(variableName, variableType) == null){
-              System.out.printf("error: '%s' variable has already been declared in '%s' class!\n", variableName, currentClass.className);
-              throw new Exception("error: " + variableName + " variable has already been declared in " + currentClass.className+ " class!");
+          if(currentClass.addVariable(n.f1.f0.symbol, variableName, variableType) == null){
+              throw diagnostics.report(n.f1, String.format("error: '%s' variable has already been declared in '%s' class!\n", variableName, currentClass.className), "error: " + variableName + " variable has already been declared in " + currentClass.className+ " class!");
           }
       }else{                                                        //if the variable is declared inside of a method
-          if(currentMethod.addVariable(variableName, variableType) == null){
-              System.out.printf("error: '%s' variable has already been declared in '%s' method!\n", variableName, currentMethod.methodName);
-              throw new Exception("error: " + variableName + " variable has already been declared in " + currentMethod.methodName + " method!");
+          if(currentMethod.addVariable(n.f1.f0.symbol, variableName, variableType) == null){
+              throw diagnostics.report(n.f1, String.format("error: '%s' variable has already been declared in '%s' method!\n", variableName, currentMethod.methodName), "error: " + variableName + " variable has already been declared in " + currentMethod.methodName + " method!");
           }
       }
 
-      //if variable is declared outside of a method, then it must be added to the class's offset
-      if(currentMethod == null) {
-          String parentClassName = currentClass.className;
-          Classes tmpClass = currentClass;
-
-          if (currentClass.parentClass != null) {
-              parentClassName = tmpClass.parentClass.className;
-              while (tmpClass.parentClass != null) {
-                  parentClassName = tmpClass.parentClass.className;
-                  tmpClass = tmpClass.parentClass;
-              }
-          }
-
-          offset parentOffset = symTable.offsetMap.get(parentClassName);
-
-          offset tmpOffset = symTable.offsetMap.get(currentClass.className);
-          tmpOffset.addPrint(currentClass.className + "." + variableName + " : " + parentOffset.variableOffset + "\n");
-
-          if (variableType.equals("boolean")) {
-              parentOffset.variableOffset += 1;
-          }
-          if (variableType.equals("int")) {
-              parentOffset.variableOffset += 4;
-          }
-          if (!variableType.equals("boolean") && !variableType.equals("int")) {
-              parentOffset.variableOffset += 8;
-          }
-      }
-      variableName = variableName + ' ' +  n.f1.accept(this, symTable);
+      variableName = variableName + ' ' +  dispatch(n.f1, symTable);
 
       return variableName;
    }
 
+    //returns the type of the Type node (int, boolean, int[] or a class, even if the class has not been declared yet)
+    private TypeRef type(Type n, symbolTable symTable){
+        Node type = n.f0.choice;
+        if(type instanceof IntegerType) return TypeRef.INT;
+        if(type instanceof BooleanType) return TypeRef.BOOLEAN;
+        if(type instanceof ArrayType) return TypeRef.INT_ARRAY;
+        NodeToken className = ((Identifier) type).f0;
+        return symTable.classType(className.symbol, className.tokenImage);
+    }
+
     public String visit(ArrayType n, symbolTable symTable) {
         return "int[]";
     }
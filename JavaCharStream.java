@@ -81,6 +81,37 @@ class JavaCharStream
   protected int inBuf = 0;
   protected int tabSize = 8;
 
+  /**
+   * Compact position mode (see the char array constructor): the whole input
+   * is in buffer, bufpos and tokenBegin are offsets in it, and bufline and
+   * bufcolumn are not used. The line and column of an offset are computed
+   * only when they are asked, by walking forward from the last position
+   * asked, and lineStarts remembers where every line walked over starts.
+   */
+  protected boolean compact = false;
+  protected int length;
+  protected int[] lineStarts;
+  protected int lineCount;
+  protected int startLine;
+  protected int startColumn;
+
+  /** The last position asked in compact mode (posOffset is -1 before the first character). */
+  protected int posOffset;
+  protected int posLine;
+  protected int posColumn;
+  protected boolean posPrevCR;
+  protected boolean posPrevLF;
+
+  /**
+   * What adjustBeginLineColumn changed in compact mode: lineDelta is added
+   * to the lines from the adjusted token on, and columnDelta to the columns
+   * of the rest of its first line (adjustedLine, counted without lineDelta),
+   * the same as the buffered mode does.
+   */
+  protected int lineDelta;
+  protected int columnDelta;
+  protected int adjustedLine;
+
   protected void setTabSize(int i) { tabSize = i; }
   protected int getTabSize(int i) { return tabSize; }
 
@@ -174,6 +205,17 @@ class JavaCharStream
 /** @return starting character for token. */
   public char BeginToken() throws java.io.IOException
   {
+    if (compact)
+    {
+      if (bufpos + 1 >= length)
+      {
+        tokenBegin = bufpos;
+        throw new java.io.IOException();
+      }
+      tokenBegin = ++bufpos;
+      return buffer[bufpos];
+    }
+
     if (inBuf > 0)
     {
       --inBuf;
@@ -254,6 +296,13 @@ class JavaCharStream
 /** Read a character. */
   public char readChar() throws java.io.IOException
   {
+    if (compact)
+    {
+      if (bufpos + 1 >= length)
+        throw new java.io.IOException();
+      return buffer[++bufpos];
+    }
+
     if (inBuf > 0)
     {
       --inBuf;
@@ -351,6 +400,11 @@ class JavaCharStream
    * @see #getEndColumn
    */
   public int getColumn() {
+    if (compact)
+    {
+      walkTo(bufpos);
+      return compactColumn();
+    }
     return bufcolumn[bufpos];
   }
 
@@ -360,32 +414,63 @@ class JavaCharStream
    * @see #getEndLine
    */
   public int getLine() {
+    if (compact)
+    {
+      walkTo(bufpos);
+      return compactLine();
+    }
     return bufline[bufpos];
   }
 
 /** Get end column. */
   public int getEndColumn() {
+    if (compact)
+    {
+      walkTo(bufpos);
+      return compactColumn();
+    }
     return bufcolumn[bufpos];
   }
 
 /** Get end line. */
   public int getEndLine() {
+    if (compact)
+    {
+      walkTo(bufpos);
+      return compactLine();
+    }
     return bufline[bufpos];
   }
 
 /** @return column of token start */
   public int getBeginColumn() {
+    if (compact)
+    {
+      walkTo(tokenBegin);
+      return compactColumn();
+    }
     return bufcolumn[tokenBegin];
   }
 
 /** @return line number of token start */
   public int getBeginLine() {
+    if (compact)
+    {
+      walkTo(tokenBegin);
+      return compactLine();
+    }
     return bufline[tokenBegin];
   }
 
 /** Retreat. */
   public void backup(int amount) {
 
+    if (compact)
+    {
+      bufpos -= amount;
+      return;
+    }
+
     inBuf += amount;
     if ((bufpos -= amount) < 0)
       bufpos += bufsize;
@@ -426,6 +511,11 @@ class JavaCharStream
     line = startline;
     column = startcolumn - 1;
 
+    if (compact)
+    {
+      compact = false;
+      buffer = null;
+    }
     if (buffer == null || buffersize != buffer.length)
     {
       available = bufsize = buffersize;
@@ -528,6 +618,179 @@ class JavaCharStream
     ReInit(dstream, 1, 1, 4096);
   }
 
+/**
+ * Constructor for compact position mode: reads from the first length
+ * characters of chars, which must not change while they are read. If they
+ * contain a unicode escape (backslash-u), the stream works as if it read
+ * them from a Reader instead.
+ */
+  public JavaCharStream(char[] chars, int length, int startline, int startcolumn)
+  {
+    ReInit(chars, length, startline, startcolumn);
+  }
+
+/** Constructor for compact position mode. */
+  public JavaCharStream(char[] chars, int length)
+  {
+    this(chars, length, 1, 1);
+  }
+
+/** Reinitialise in compact position mode. */
+  public void ReInit(char[] chars, int length, int startline, int startcolumn)
+  {
+    if (hasUnicodeEscape(chars, length))
+    {
+      ReInit(new java.io.CharArrayReader(chars, 0, length), startline, startcolumn, 4096);
+      return;
+    }
+
+    buffer = chars;
+    initCompact(length, startline, startcolumn);
+  }
+
+/** Reinitialise in compact position mode. */
+  public void ReInit(char[] chars, int length)
+  {
+    ReInit(chars, length, 1, 1);
+  }
+
+  /** Starts compact position mode, for an input of length characters. */
+  protected void initCompact(int length, int startline, int startcolumn)
+  {
+    compact = true;
+    this.length = length;
+    bufline = bufcolumn = null;
+    tokenBegin = 0;
+    bufpos = -1;
+
+    startLine = startline;
+    startColumn = startcolumn;
+    if (lineStarts == null)
+      lineStarts = new int[64];
+    lineStarts[0] = 0;
+    lineCount = 1;
+    posOffset = -1;
+    posLine = startline;
+    posColumn = startcolumn - 1;
+    posPrevCR = posPrevLF = false;
+    lineDelta = columnDelta = 0;
+    adjustedLine = startline - 1;
+  }
+
+  /** @return the line of the compact mode position, after adjustBeginLineColumn */
+  protected int compactLine()
+  {
+    return posLine + lineDelta;
+  }
+
+  /** @return the column of the compact mode position, after adjustBeginLineColumn */
+  protected int compactColumn()
+  {
+    return posLine == adjustedLine ? posColumn + columnDelta : posColumn;
+  }
+
+  /** @return true if chars has a backslash followed by a 'u' */
+  public static boolean hasUnicodeEscape(char[] chars, int length)
+  {
+    for (int i = 0; i + 1 < length; i++)
+    {
+      if (chars[i] == '\\' && chars[i + 1] == 'u')
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Moves the compact mode position to offset, counting lines and columns
+   * the same way as UpdateLineColumn. Going back starts again from the
+   * start of the line of offset.
+   */
+  protected void walkTo(int offset)
+  {
+    if (offset < posOffset)
+    {
+      int low = 0, high = lineCount - 1;
+      while (low < high)
+      {
+        int mid = (low + high + 1) >>> 1;
+        if (lineStarts[mid] <= offset)
+          low = mid;
+        else
+          high = mid - 1;
+      }
+
+      if (low == 0)
+      {
+        posOffset = -1;
+        posLine = startLine;
+        posColumn = startColumn - 1;
+        posPrevLF = false;
+      }
+      else
+      {
+        // the character before a line start ended the previous line
+        posOffset = lineStarts[low] - 1;
+        posLine = startLine + low - 1;
+        posPrevLF = true;
+      }
+      posPrevCR = false;
+    }
+
+    while (posOffset < offset)
+    {
+      char c = compactChar(++posOffset);
+      posColumn++;
+
+      if (posPrevLF)
+      {
+        posPrevLF = false;
+        newLine();
+      }
+      else if (posPrevCR)
+      {
+        posPrevCR = false;
+        if (c == '\n')
+          posPrevLF = true;
+        else
+          newLine();
+      }
+
+      switch (c)
+      {
+        case '\r' :
+          posPrevCR = true;
+          break;
+        case '\n' :
+          posPrevLF = true;
+          break;
+        case '\t' :
+          posColumn--;
+          posColumn += (tabSize - (posColumn % tabSize));
+          break;
+        default :
+          break;
+      }
+    }
+  }
+
+  /** @return the character at offset in compact position mode */
+  protected char compactChar(int offset)
+  {
+    return buffer[offset];
+  }
+
+  /** The compact mode position starts a new line at posOffset. */
+  protected void newLine()
+  {
+    posColumn = 1;
+    if (++posLine - startLine == lineCount)
+    {
+      if (lineCount == lineStarts.length)
+        lineStarts = java.util.Arrays.copyOf(lineStarts, lineCount * 2);
+      lineStarts[lineCount++] = posOffset;
+    }
+  }
+
   /** @return token image as String */
   public String GetImage()
   {
@@ -569,6 +832,17 @@ class JavaCharStream
    */
   public void adjustBeginLineColumn(int newLine, int newCol)
   {
+    if (compact)
+    {
+      // the positions are still counted from the start of the input, and
+      // moved when they are asked (only the token and what follows it are)
+      walkTo(tokenBegin);
+      lineDelta = newLine - posLine;
+      columnDelta = newCol - posColumn;
+      adjustedLine = posLine;
+      return;
+    }
+
     int start = tokenBegin;
     int len;
 
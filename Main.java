@@ -1,45 +1,89 @@
-import syntaxtree.*;
-
-import java.io.FileInputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Main {
 
     public static void main(String[] args) throws Exception {
-        if(args.length < 1){
-            System.err.println("Usage: java Main <inputFile>");
-            System.exit(1);
-        }
-
-        FileInputStream fis = null;
-        try{
-            for(String arg: args){
-                fis = new FileInputStream(arg);
-                MiniJavaParser parser = new MiniJavaParser(fis);
+        int jobs = -1;                              //-1 means no batch mode, the files are checked one by one
+        boolean server = false;
+        int port = -1;                              //-1 means that the server reads its requests from stdin
+        String cacheDir = null;
+        long cacheSize = 64;                        //megabytes
+        List<String> files = new ArrayList<String>();
+        Options options = new Options();
 
-                Goal root = parser.Goal();
-
-                System.err.println("Program parsed successfully.");
+        for(int i = 0; i < args.length; i++){
+            if((args[i].equals("-j") || args[i].equals("--jobs")) && i + 1 < args.length){
+                jobs = Integer.parseInt(args[++i]);
+            }else if(args[i].equals("--server")){
+                server = true;
+            }else if(args[i].equals("--port") && i + 1 < args.length){
+                port = Integer.parseInt(args[++i]);
+            }else if(args[i].equals("--fast-lexer")){
+                options.fastLexer = true;
+            }else if(args[i].equals("--compact-positions")){
+                options.compactPositions = true;
+            }else if(args[i].equals("--mmap")){
+                options.mmap = true;
+            }else if(args[i].equals("--stats")){
+                options.stats = "table";
+            }else if(args[i].equals("--stats=json")){
+                options.stats = "json";
+            }else if(args[i].equals("--single-pass")){
+                options.singlePass = true;
+            }else if(args[i].equals("--parallel")){
+                options.parallel = true;
+            }else if(args[i].equals("--max-errors") && i + 1 < args.length){
+                options.maxErrors = Integer.parseInt(args[++i]);
+                options.positions = true;
+            }else if(args[i].startsWith("--layout=")){
+                options.layout = ClassLayout.policy(args[i].substring("--layout=".length()));
+                if(options.layout < 0){
+                    System.err.println("Unknown layout: " + args[i] + " (use declaration, aligned or packed)");
+                    System.exit(1);
+                }
+            }else if(args[i].equals("--layout-report")){
+                options.layoutReport = true;
+            }else if(args[i].equals("--cache") && i + 1 < args.length){
+                cacheDir = args[++i];
+            }else if(args[i].equals("--cache-size") && i + 1 < args.length){
+                cacheSize = Long.parseLong(args[++i]);
+            }else if(args[i].equals("--snapshots") && i + 1 < args.length){
+                options.snapshots = new AstSnapshot(new File(args[++i]));
+            }else files.add(args[i]);
+        }
 
-                FirstVisitor eval = new FirstVisitor();
+        if(cacheDir != null){
+            options.cache = new ResultCache(new File(cacheDir), cacheSize * 1024 * 1024);
+        }
 
-                symbolTable symTable = new symbolTable();
-                root.accept(eval, symTable);                //FirstVisitor fills the symbol table, checks for double declarations, and calculates the offset of each class
+        //server mode: the program keeps running and checks the files (or source texts) it gets as requests
+        if(server){
+            if(port >= 0){
+                CompileServer.servePort(port, options);
+            }else CompileServer.serveStdio(options);
+            return;
+        }
 
-                SecondVisitor eval2 = new SecondVisitor();
-                root.accept(eval2, symTable);               //SecondVisitor used the filled symbol table, to find other error (like wrong assignments, wrong types etc.)
+        if(files.size() < 1){
+            System.err.println("Usage: java Main [-j <workers>] [--fast-lexer] [--compact-positions] [--mmap] [--single-pass] [--parallel] [--max-errors <n>] [--stats[=json]] [--layout=<policy>] [--layout-report] [--cache <dir> [--cache-size <MB>]] [--snapshots <dir>] <inputFile> ...\n       java Main --server [--port <port>] [--fast-lexer] [--compact-positions] [--mmap] [--single-pass] [--parallel] [--max-errors <n>] [--stats[=json]] [--layout=<policy>] [--layout-report] [--cache <dir> [--cache-size <MB>]] [--snapshots <dir>]");
+            System.exit(1);
+        }
 
-                Set<String> keySet = symTable.offsetMap.keySet();
+        //batch mode: the files are checked in parallel, and an error in a file doesn't stop the checking of the rest
+        if(jobs >= 0){
+            int failed = new Batch(jobs, options).run(files);
+            if(options.cache != null) options.cache.printCounters(System.err);
+            if(options.snapshots != null) options.snapshots.printCounters(System.err);
+            System.exit(failed == 0 ? 0 : 1);
+        }
 
-                //prints the offset of each class (in order of declaration)
-                for(String key: keySet){
-                    offset tmpOffset = symTable.offsetMap.get(key);
-                    if(tmpOffset.print != null){
-                        tmpOffset.printOffset();
-                    }
-                }
+        try{
+            Checker checker = new Checker(options);
+            for(String arg: files){
+                checker.checkFile(arg, System.out, System.err);
             }
         }
         catch(ParseException ex){
@@ -49,12 +93,8 @@ public class Main {
             System.err.println(ex.getMessage());
         }
         finally{
-            try{
-                if(fis != null) fis.close();
-            }
-            catch(IOException ex){
-                System.err.println(ex.getMessage());
-            }
+            if(options.cache != null) options.cache.printCounters(System.err);
+            if(options.snapshots != null) options.snapshots.printCounters(System.err);
         }
     }
 }
@@ -4,6 +4,105 @@ import java.util.Vector;
 
 
 public class MiniJavaParser implements MiniJavaParserConstants {
+   static final int AND_EXPRESSION = 0,COMPARE_EXPRESSION = 1,PLUS_EXPRESSION = 2,MINUS_EXPRESSION = 3,TIMES_EXPRESSION = 4,ARRAY_LOOKUP = 5,ARRAY_LENGTH = 6,MESSAGE_SEND = 7,PRIMARY_EXPRESSION = 8;
+   static final int END_OF_INPUT = 0;
+   private Token kindStart;
+   private int kindCache;
+   int expressionKind()
+   {
+      Token start = getToken(1);
+      if ( start == kindStart )
+         return kindCache;
+      int kind = PRIMARY_EXPRESSION;
+      Token last = skipPrimary(start);
+      if ( last != null )
+      {
+         Token next = nextToken(last);
+         switch (next.kind)
+         {
+            case AND :
+               kind = AND_EXPRESSION;
+               break;
+            case LT :
+               kind = COMPARE_EXPRESSION;
+               break;
+            case PLUS :
+               kind = PLUS_EXPRESSION;
+               break;
+            case MINUS :
+               kind = MINUS_EXPRESSION;
+               break;
+            case TIMES :
+               kind = TIMES_EXPRESSION;
+               break;
+            case LSQPAREN :
+               kind = ARRAY_LOOKUP;
+               break;
+            case DOT :
+               Token after = nextToken(next);
+               if ( after.kind == LENGTH )
+                  kind = ARRAY_LENGTH;
+               else
+                  if ( after.kind == IDENTIFIER && nextToken(after).kind == LPAREN )
+                     kind = MESSAGE_SEND;
+               break;
+         }
+
+      }
+      kindStart = start;
+      kindCache = kind;
+      return kind;
+   }
+   private Token skipPrimary(Token t)
+   {
+      switch (t.kind)
+      {
+         case INTEGER_LITERAL :
+         case TRUE :
+         case FALSE :
+         case IDENTIFIER :
+         case THIS : return t;
+         case NEW :
+            Token n = nextToken(t);
+            if ( n.kind == INTEGER )
+               n = nextToken(n);
+            else
+               if ( n.kind == IDENTIFIER )
+                  n = nextToken(n);
+               else
+                  return null;
+            return n.kind == LSQPAREN || n.kind == LPAREN ? closer(n) : null;
+         case NOT : return skipPrimary(nextToken(t));
+         case LPAREN : return closer(t);
+         default : return null;
+      }
+
+   }
+   private Token closer(Token open)
+   {
+      if ( open.closer != null )
+         return open.closer;
+      int closeKind = open.kind == LPAREN ? RPAREN : RSQPAREN;
+      Token t = nextToken(open);
+      while ( t.kind != closeKind && t.kind != END_OF_INPUT )
+      {
+         if ( t.kind == LPAREN || t.kind == LSQPAREN )
+         {
+            t = closer(t);
+            if ( t.kind == END_OF_INPUT )
+               break;
+         }
+         t = nextToken(t);
+      }
+      open.closer = t;
+      return t;
+   }
+   private Token nextToken(Token t)
+   {
+      if ( t.next == null )
+         t.next = token_source.getNextToken();
+      return t.next;
+   }
 
   final public Goal Goal() throws ParseException {
    MainClass n0;
@@ -388,7 +487,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     label_10:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 47:
+      case COMMA:
         ;
         break;
       default:
@@ -407,7 +506,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    NodeToken n0;
    Token n1;
    FormalParameter n2;
-    n1 = jj_consume_token(47);
+    n1 = jj_consume_token(COMMA);
             n0 = JTBToolkit.makeNodeToken(n1);
     n2 = FormalParameter();
      {if (true) return new FormalParameterTerm(n0,n2);}
@@ -687,28 +786,28 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    ArrayLength n7;
    MessageSend n8;
    PrimaryExpression n9;
-    if (jj_2_7(2147483647)) {
+    if (expressionKind() == AND_EXPRESSION) {
       n1 = AndExpression();
         n0 = new NodeChoice(n1, 0);
-    } else if (jj_2_8(2147483647)) {
+    } else if (expressionKind() == COMPARE_EXPRESSION) {
       n2 = CompareExpression();
         n0 = new NodeChoice(n2, 1);
-    } else if (jj_2_9(2147483647)) {
+    } else if (expressionKind() == PLUS_EXPRESSION) {
       n3 = PlusExpression();
         n0 = new NodeChoice(n3, 2);
-    } else if (jj_2_10(2147483647)) {
+    } else if (expressionKind() == MINUS_EXPRESSION) {
       n4 = MinusExpression();
         n0 = new NodeChoice(n4, 3);
-    } else if (jj_2_11(2147483647)) {
+    } else if (expressionKind() == TIMES_EXPRESSION) {
       n5 = TimesExpression();
         n0 = new NodeChoice(n5, 4);
-    } else if (jj_2_12(2147483647)) {
+    } else if (expressionKind() == ARRAY_LOOKUP) {
       n6 = ArrayLookup();
         n0 = new NodeChoice(n6, 5);
-    } else if (jj_2_13(2147483647)) {
+    } else if (expressionKind() == ARRAY_LENGTH) {
       n7 = ArrayLength();
         n0 = new NodeChoice(n7, 6);
-    } else if (jj_2_14(2147483647)) {
+    } else if (expressionKind() == MESSAGE_SEND) {
       n8 = MessageSend();
         n0 = new NodeChoice(n8, 7);
     } else {
@@ -792,7 +891,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    Token n2;
    PrimaryExpression n3;
     n0 = PrimaryExpression();
-    n2 = jj_consume_token(48);
+    n2 = jj_consume_token(TIMES);
             n1 = JTBToolkit.makeNodeToken(n2);
     n3 = PrimaryExpression();
      {if (true) return new TimesExpression(n0,n1,n3);}
@@ -848,20 +947,10 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n3 = Identifier();
     n5 = jj_consume_token(LPAREN);
             n4 = JTBToolkit.makeNodeToken(n5);
-    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case LPAREN:
-    case NOT:
-    case FALSE:
-    case NEW:
-    case THIS:
-    case TRUE:
-    case INTEGER_LITERAL:
-    case IDENTIFIER:
+    if (jj_2_7(1)) {
       n7 = ExpressionList();
         n6.addNode(n7);
-      break;
-    default:
-      jj_la1[15] = jj_gen;
+    } else {
       ;
     }
     n9 = jj_consume_token(RPAREN);
@@ -885,11 +974,11 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     label_12:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 47:
+      case COMMA:
         ;
         break;
       default:
-        jj_la1[16] = jj_gen;
+        jj_la1[15] = jj_gen;
         break label_12;
       }
       n1 = ExpressionTerm();
@@ -904,7 +993,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    NodeToken n0;
    Token n1;
    Expression n2;
-    n1 = jj_consume_token(47);
+    n1 = jj_consume_token(COMMA);
             n0 = JTBToolkit.makeNodeToken(n1);
     n2 = Expression();
      {if (true) return new ExpressionTerm(n0,n2);}
@@ -944,8 +1033,8 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n5, 4);
       break;
     default:
-      jj_la1[17] = jj_gen;
-      if (jj_2_15(3)) {
+      jj_la1[16] = jj_gen;
+      if (jj_2_8(3)) {
         n6 = ArrayAllocationExpression();
         n0 = new NodeChoice(n6, 5);
       } else {
@@ -963,7 +1052,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n9, 8);
           break;
         default:
-          jj_la1[18] = jj_gen;
+          jj_la1[17] = jj_gen;
           jj_consume_token(-1);
           throw new ParseException();
         }
@@ -1142,326 +1231,241 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     finally { jj_save(7, xla); }
   }
 
-  private boolean jj_2_9(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_9(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(8, xla); }
-  }
-
-  private boolean jj_2_10(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_10(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(9, xla); }
-  }
-
-  private boolean jj_2_11(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_11(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(10, xla); }
-  }
-
-  private boolean jj_2_12(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_12(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(11, xla); }
-  }
-
-  private boolean jj_2_13(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_13(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(12, xla); }
-  }
-
-  private boolean jj_2_14(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_14(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(13, xla); }
-  }
-
-  private boolean jj_2_15(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_15(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(14, xla); }
-  }
-
-  private boolean jj_3_1() {
-    if (jj_3R_13()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_15() {
-    if (jj_scan_token(INTEGER)) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    if (jj_scan_token(RSQPAREN)) return true;
+  private boolean jj_3R_20() {
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3_4()) {
+    jj_scanpos = xsp;
+    if (jj_3R_23()) {
+    jj_scanpos = xsp;
+    if (jj_3R_24()) {
+    jj_scanpos = xsp;
+    if (jj_3R_25()) return true;
+    }
+    }
+    }
     return false;
   }
 
-  private boolean jj_3R_52() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(AND)) return true;
-    if (jj_3R_18()) return true;
+  private boolean jj_3R_30() {
+    if (jj_3R_41()) return true;
     return false;
   }
 
-  private boolean jj_3R_19() {
-    if (jj_scan_token(IDENTIFIER)) return true;
+  private boolean jj_3R_29() {
+    if (jj_3R_40()) return true;
     return false;
   }
 
-  private boolean jj_3R_39() {
-    if (jj_scan_token(LPAREN)) return true;
-    if (jj_3R_42()) return true;
-    if (jj_scan_token(RPAREN)) return true;
+  private boolean jj_3_6() {
+    if (jj_3R_17()) return true;
     return false;
   }
 
-  private boolean jj_3R_64() {
-    if (jj_scan_token(47)) return true;
-    if (jj_3R_42()) return true;
+  private boolean jj_3R_28() {
+    if (jj_3R_39()) return true;
     return false;
   }
 
-  private boolean jj_3R_57() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(RSQPAREN)) return true;
+  private boolean jj_3R_54() {
+    if (jj_scan_token(INTEGER_LITERAL)) return true;
     return false;
   }
 
-  private boolean jj_3_14() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LPAREN)) return true;
+  private boolean jj_3_5() {
+    if (jj_3R_16()) return true;
     return false;
   }
 
-  private boolean jj_3_13() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_scan_token(LENGTH)) return true;
+  private boolean jj_3R_18() {
+    if (jj_3R_22()) return true;
     return false;
   }
 
-  private boolean jj_3R_51() {
-    if (jj_3R_18()) return true;
+  private boolean jj_3R_58() {
+    if (jj_scan_token(NEW)) return true;
     return false;
   }
 
-  private boolean jj_3R_35() {
-    if (jj_scan_token(FALSE)) return true;
+  private boolean jj_3R_14() {
+    if (jj_scan_token(CLASS)) return true;
+    if (jj_3R_21()) return true;
+    if (jj_scan_token(LBRACE)) return true;
     return false;
   }
 
-  private boolean jj_3R_32() {
-    if (jj_3R_19()) return true;
+  private boolean jj_3R_27() {
+    if (jj_3R_38()) return true;
     return false;
   }
 
-  private boolean jj_3_12() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
+  private boolean jj_3R_40() {
+    if (jj_3R_45()) return true;
     return false;
   }
 
-  private boolean jj_3R_31() {
-    if (jj_3R_41()) return true;
+  private boolean jj_3R_26() {
+    if (jj_3R_37()) return true;
     return false;
   }
 
-  private boolean jj_3R_50() {
-    if (jj_3R_59()) return true;
+  private boolean jj_3R_22() {
+    Token xsp;
+    xsp = jj_scanpos;
+    jj_lookingAhead = true;
+    jj_semLA = expressionKind() == AND_EXPRESSION;
+    jj_lookingAhead = false;
+    if (!jj_semLA || jj_3R_26()) {
+    jj_scanpos = xsp;
+    jj_lookingAhead = true;
+    jj_semLA = expressionKind() == COMPARE_EXPRESSION;
+    jj_lookingAhead = false;
+    if (!jj_semLA || jj_3R_27()) {
+    jj_scanpos = xsp;
+    jj_lookingAhead = true;
+    jj_semLA = expressionKind() == PLUS_EXPRESSION;
+    jj_lookingAhead = false;
+    if (!jj_semLA || jj_3R_28()) {
+    jj_scanpos = xsp;
+    jj_lookingAhead = true;
+    jj_semLA = expressionKind() == MINUS_EXPRESSION;
+    jj_lookingAhead = false;
+    if (!jj_semLA || jj_3R_29()) {
+    jj_scanpos = xsp;
+    jj_lookingAhead = true;
+    jj_semLA = expressionKind() == TIMES_EXPRESSION;
+    jj_lookingAhead = false;
+    if (!jj_semLA || jj_3R_30()) {
+    jj_scanpos = xsp;
+    jj_lookingAhead = true;
+    jj_semLA = expressionKind() == ARRAY_LOOKUP;
+    jj_lookingAhead = false;
+    if (!jj_semLA || jj_3R_31()) {
+    jj_scanpos = xsp;
+    jj_lookingAhead = true;
+    jj_semLA = expressionKind() == ARRAY_LENGTH;
+    jj_lookingAhead = false;
+    if (!jj_semLA || jj_3R_32()) {
+    jj_scanpos = xsp;
+    jj_lookingAhead = true;
+    jj_semLA = expressionKind() == MESSAGE_SEND;
+    jj_lookingAhead = false;
+    if (!jj_semLA || jj_3R_33()) {
+    jj_scanpos = xsp;
+    if (jj_3R_34()) return true;
+    }
+    }
+    }
+    }
+    }
+    }
+    }
+    }
     return false;
   }
 
-  private boolean jj_3_3() {
-    if (jj_3R_13()) return true;
+  private boolean jj_3R_53() {
+    if (jj_3R_60()) return true;
     return false;
   }
 
-  private boolean jj_3R_30() {
-    if (jj_3R_40()) return true;
+  private boolean jj_3_7() {
+    if (jj_3R_18()) return true;
     return false;
   }
 
-  private boolean jj_3_11() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(48)) return true;
+  private boolean jj_3R_52() {
+    if (jj_3R_59()) return true;
     return false;
   }
 
-  private boolean jj_3R_63() {
-    if (jj_3R_64()) return true;
+  private boolean jj_3R_17() {
+    if (jj_3R_21()) return true;
+    if (jj_scan_token(LSQPAREN)) return true;
     return false;
   }
 
-  private boolean jj_3R_49() {
+  private boolean jj_3R_51() {
     if (jj_3R_58()) return true;
     return false;
   }
 
-  private boolean jj_3R_38() {
-    if (jj_scan_token(NOT)) return true;
-    if (jj_3R_18()) return true;
+  private boolean jj_3R_44() {
+    if (jj_3R_45()) return true;
     return false;
   }
 
-  private boolean jj_3_4() {
-    if (jj_3R_15()) return true;
+  private boolean jj_3R_39() {
+    if (jj_3R_45()) return true;
     return false;
   }
 
-  private boolean jj_3_10() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(MINUS)) return true;
+  private boolean jj_3_8() {
+    if (jj_3R_19()) return true;
     return false;
   }
 
-  private boolean jj_3R_62() {
-    Token xsp;
-    while (true) {
-      xsp = jj_scanpos;
-      if (jj_3R_63()) { jj_scanpos = xsp; break; }
-    }
+  private boolean jj_3R_19() {
+    if (jj_scan_token(NEW)) return true;
+    if (jj_scan_token(INTEGER)) return true;
+    if (jj_scan_token(LSQPAREN)) return true;
     return false;
   }
 
-  private boolean jj_3R_48() {
+  private boolean jj_3R_50() {
     if (jj_3R_57()) return true;
     return false;
   }
 
-  private boolean jj_3R_56() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(48)) return true;
-    if (jj_3R_18()) return true;
+  private boolean jj_3R_36() {
+    if (jj_scan_token(INTEGER)) return true;
     return false;
   }
 
-  private boolean jj_3R_34() {
-    if (jj_scan_token(TRUE)) return true;
+  private boolean jj_3_2() {
+    if (jj_3R_14()) return true;
     return false;
   }
 
-  private boolean jj_3R_21() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3_4()) {
-    jj_scanpos = xsp;
-    if (jj_3R_30()) {
-    jj_scanpos = xsp;
-    if (jj_3R_31()) {
-    jj_scanpos = xsp;
-    if (jj_3R_32()) return true;
-    }
-    }
-    }
+  private boolean jj_3R_49() {
+    if (jj_3R_21()) return true;
     return false;
   }
 
-  private boolean jj_3_9() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(PLUS)) return true;
+  private boolean jj_3R_13() {
+    if (jj_3R_20()) return true;
+    if (jj_3R_21()) return true;
     return false;
   }
 
-  private boolean jj_3R_47() {
+  private boolean jj_3R_48() {
     if (jj_3R_56()) return true;
     return false;
   }
 
-  private boolean jj_3_8() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(LT)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_46() {
+  private boolean jj_3R_47() {
     if (jj_3R_55()) return true;
     return false;
   }
 
-  private boolean jj_3_6() {
-    if (jj_3R_17()) return true;
-    return false;
-  }
-
-  private boolean jj_3_7() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(AND)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_45() {
+  private boolean jj_3R_46() {
     if (jj_3R_54()) return true;
     return false;
   }
 
-  private boolean jj_3R_61() {
-    if (jj_3R_42()) return true;
-    if (jj_3R_62()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_33() {
-    if (jj_scan_token(INTEGER_LITERAL)) return true;
-    return false;
-  }
-
-  private boolean jj_3_5() {
-    if (jj_3R_16()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_37() {
-    if (jj_scan_token(NEW)) return true;
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LPAREN)) return true;
-    if (jj_scan_token(RPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_44() {
-    if (jj_3R_53()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_14() {
-    if (jj_scan_token(CLASS)) return true;
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LBRACE)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_55() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(MINUS)) return true;
-    if (jj_3R_18()) return true;
+  private boolean jj_3R_35() {
+    if (jj_scan_token(BOOLEAN)) return true;
     return false;
   }
 
-  private boolean jj_3R_43() {
-    if (jj_3R_52()) return true;
+  private boolean jj_3R_38() {
+    if (jj_3R_45()) return true;
     return false;
   }
 
-  private boolean jj_3R_42() {
+  private boolean jj_3R_45() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_3R_43()) {
-    jj_scanpos = xsp;
-    if (jj_3R_44()) {
-    jj_scanpos = xsp;
-    if (jj_3R_45()) {
-    jj_scanpos = xsp;
     if (jj_3R_46()) {
     jj_scanpos = xsp;
     if (jj_3R_47()) {
@@ -1472,7 +1476,13 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     jj_scanpos = xsp;
     if (jj_3R_50()) {
     jj_scanpos = xsp;
-    if (jj_3R_51()) return true;
+    if (jj_3_8()) {
+    jj_scanpos = xsp;
+    if (jj_3R_51()) {
+    jj_scanpos = xsp;
+    if (jj_3R_52()) {
+    jj_scanpos = xsp;
+    if (jj_3R_53()) return true;
     }
     }
     }
@@ -1484,164 +1494,116 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3R_29() {
-    if (jj_3R_39()) return true;
+  private boolean jj_3R_16() {
+    if (jj_3R_21()) return true;
+    if (jj_scan_token(ASSIGN)) return true;
     return false;
   }
 
-  private boolean jj_3R_60() {
-    if (jj_3R_61()) return true;
+  private boolean jj_3R_57() {
+    if (jj_scan_token(THIS)) return true;
     return false;
   }
 
-  private boolean jj_3R_28() {
-    if (jj_3R_38()) return true;
+  private boolean jj_3R_43() {
+    if (jj_3R_45()) return true;
     return false;
   }
 
-  private boolean jj_3R_17() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
+  private boolean jj_3_1() {
+    if (jj_3R_13()) return true;
     return false;
   }
 
-  private boolean jj_3R_27() {
-    if (jj_3R_37()) return true;
+  private boolean jj_3R_15() {
+    if (jj_scan_token(INTEGER)) return true;
+    if (jj_scan_token(LSQPAREN)) return true;
+    if (jj_scan_token(RSQPAREN)) return true;
     return false;
   }
 
-  private boolean jj_3R_59() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LPAREN)) return true;
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_60()) jj_scanpos = xsp;
-    if (jj_scan_token(RPAREN)) return true;
+  private boolean jj_3R_37() {
+    if (jj_3R_45()) return true;
     return false;
   }
 
-  private boolean jj_3R_54() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(PLUS)) return true;
-    if (jj_3R_18()) return true;
+  private boolean jj_3R_21() {
+    if (jj_scan_token(IDENTIFIER)) return true;
     return false;
   }
 
-  private boolean jj_3_15() {
-    if (jj_3R_20()) return true;
+  private boolean jj_3R_60() {
+    if (jj_scan_token(LPAREN)) return true;
     return false;
   }
 
-  private boolean jj_3R_20() {
-    if (jj_scan_token(NEW)) return true;
-    if (jj_scan_token(INTEGER)) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    if (jj_3R_42()) return true;
-    if (jj_scan_token(RSQPAREN)) return true;
+  private boolean jj_3R_42() {
+    if (jj_3R_45()) return true;
     return false;
   }
 
-  private boolean jj_3R_41() {
-    if (jj_scan_token(INTEGER)) return true;
+  private boolean jj_3R_56() {
+    if (jj_scan_token(FALSE)) return true;
     return false;
   }
 
-  private boolean jj_3R_26() {
-    if (jj_3R_36()) return true;
+  private boolean jj_3R_25() {
+    if (jj_3R_21()) return true;
     return false;
   }
 
-  private boolean jj_3_2() {
-    if (jj_3R_14()) return true;
+  private boolean jj_3R_34() {
+    if (jj_3R_45()) return true;
     return false;
   }
 
-  private boolean jj_3R_25() {
-    if (jj_3R_19()) return true;
+  private boolean jj_3R_24() {
+    if (jj_3R_36()) return true;
     return false;
   }
 
-  private boolean jj_3R_13() {
-    if (jj_3R_21()) return true;
-    if (jj_3R_19()) return true;
+  private boolean jj_3R_33() {
+    if (jj_3R_44()) return true;
     return false;
   }
 
-  private boolean jj_3R_24() {
-    if (jj_3R_35()) return true;
+  private boolean jj_3_3() {
+    if (jj_3R_13()) return true;
     return false;
   }
 
   private boolean jj_3R_23() {
-    if (jj_3R_34()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_22() {
-    if (jj_3R_33()) return true;
+    if (jj_3R_35()) return true;
     return false;
   }
 
-  private boolean jj_3R_53() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(LT)) return true;
-    if (jj_3R_18()) return true;
+  private boolean jj_3R_32() {
+    if (jj_3R_43()) return true;
     return false;
   }
 
-  private boolean jj_3R_40() {
-    if (jj_scan_token(BOOLEAN)) return true;
+  private boolean jj_3R_59() {
+    if (jj_scan_token(NOT)) return true;
     return false;
   }
 
-  private boolean jj_3R_18() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_22()) {
-    jj_scanpos = xsp;
-    if (jj_3R_23()) {
-    jj_scanpos = xsp;
-    if (jj_3R_24()) {
-    jj_scanpos = xsp;
-    if (jj_3R_25()) {
-    jj_scanpos = xsp;
-    if (jj_3R_26()) {
-    jj_scanpos = xsp;
-    if (jj_3_15()) {
-    jj_scanpos = xsp;
-    if (jj_3R_27()) {
-    jj_scanpos = xsp;
-    if (jj_3R_28()) {
-    jj_scanpos = xsp;
-    if (jj_3R_29()) return true;
-    }
-    }
-    }
-    }
-    }
-    }
-    }
-    }
+  private boolean jj_3_4() {
+    if (jj_3R_15()) return true;
     return false;
   }
 
-  private boolean jj_3R_16() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(ASSIGN)) return true;
+  private boolean jj_3R_31() {
+    if (jj_3R_42()) return true;
     return false;
   }
 
-  private boolean jj_3R_36() {
-    if (jj_scan_token(THIS)) return true;
+  private boolean jj_3R_55() {
+    if (jj_scan_token(TRUE)) return true;
     return false;
   }
 
-  private boolean jj_3R_58() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_scan_token(LENGTH)) return true;
+  private boolean jj_3R_41() {
+    if (jj_3R_45()) return true;
     return false;
   }
 
@@ -1655,8 +1617,11 @@ public class MiniJavaParser implements MiniJavaParserConstants {
   private int jj_ntk;
   private Token jj_scanpos, jj_lastpos;
   private int jj_la;
+  /** Whether we are looking ahead. */
+  private boolean jj_lookingAhead = false;
+  private boolean jj_semLA;
   private int jj_gen;
-  final private int[] jj_la1 = new int[19];
+  final private int[] jj_la1 = new int[18];
   static private int[] jj_la1_0;
   static private int[] jj_la1_1;
   static {
@@ -1664,12 +1629,12 @@ public class MiniJavaParser implements MiniJavaParserConstants {
       jj_la1_init_1();
    }
    private static void jj_la1_init_0() {
-      jj_la1_0 = new int[] {0x1000000,0x60002000,0x1000000,0x80800000,0x0,0x80800000,0x0,0x80800000,0x60002000,0x0,0x80800000,0x2000,0x60000000,0x60002000,0x10400200,0x10400200,0x0,0x10000000,0x400200,};
+      jj_la1_0 = new int[] {0x1000000,0x60002000,0x1000000,0x80800000,0x0,0x80800000,0x0,0x80800000,0x60002000,0x0,0x80800000,0x2000,0x60000000,0x60002000,0x10400200,0x0,0x10000000,0x400200,};
    }
    private static void jj_la1_init_1() {
-      jj_la1_1 = new int[] {0x0,0x1200,0x0,0x1000,0x8,0x1000,0x8,0x1000,0x1200,0x8000,0x1000,0x0,0x200,0x1200,0x1984,0x1984,0x8000,0x1980,0x4,};
+      jj_la1_1 = new int[] {0x0,0x1200,0x0,0x1000,0x8,0x1000,0x8,0x1000,0x1200,0x8000,0x1000,0x0,0x200,0x1200,0x1984,0x8000,0x1980,0x4,};
    }
-  final private JJCalls[] jj_2_rtns = new JJCalls[15];
+  final private JJCalls[] jj_2_rtns = new JJCalls[8];
   private boolean jj_rescan = false;
   private int jj_gc = 0;
 
@@ -1684,7 +1649,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 18; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1699,7 +1664,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 18; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1710,7 +1675,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 18; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1721,7 +1686,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 18; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1731,7 +1696,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 18; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1741,7 +1706,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 18; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1804,7 +1769,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
 
 /** Get the specific Token. */
   final public Token getToken(int index) {
-    Token t = token;
+    Token t = jj_lookingAhead ? jj_scanpos : token;
     for (int i = 0; i < index; i++) {
       if (t.next != null) t = t.next;
       else t = t.next = token_source.getNextToken();
@@ -1858,7 +1823,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
       la1tokens[jj_kind] = true;
       jj_kind = -1;
     }
-    for (int i = 0; i < 19; i++) {
+    for (int i = 0; i < 18; i++) {
       if (jj_la1[i] == jj_gen) {
         for (int j = 0; j < 32; j++) {
           if ((jj_la1_0[i] & (1<<j)) != 0) {
@@ -1897,7 +1862,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
 
   private void jj_rescan_token() {
     jj_rescan = true;
-    for (int i = 0; i < 15; i++) {
+    for (int i = 0; i < 8; i++) {
     try {
       JJCalls p = jj_2_rtns[i];
       do {
@@ -1912,13 +1877,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
             case 5: jj_3_6(); break;
             case 6: jj_3_7(); break;
             case 7: jj_3_8(); break;
-            case 8: jj_3_9(); break;
-            case 9: jj_3_10(); break;
-            case 10: jj_3_11(); break;
-            case 11: jj_3_12(); break;
-            case 12: jj_3_13(); break;
-            case 13: jj_3_14(); break;
-            case 14: jj_3_15(); break;
           }
         }
         p = p.next;
@@ -1948,6 +1906,8 @@ public class MiniJavaParser implements MiniJavaParserConstants {
 
 class JTBToolkit {
    static NodeToken makeNodeToken(Token t) {
-      return new NodeToken(t.image.intern(), t.kind, t.beginLine, t.beginColumn, t.endLine, t.endColumn);
+      NodeToken n = new NodeToken(t.symbol >= 0 ? t.image : t.image.intern(), t.kind, t.beginLine, t.beginColumn, t.endLine, t.endColumn);
+      n.symbol = t.symbol;
+      return n;
    }
 }
@@ -90,6 +90,10 @@ public interface MiniJavaParserConstants {
   int LETTER = 45;
   /** RegularExpression Id. */
   int DIGIT = 46;
+  /** RegularExpression Id. */
+  int COMMA = 47;
+  /** RegularExpression Id. */
+  int TIMES = 48;
 
   /** Lexical state. */
   int DEFAULT = 0;
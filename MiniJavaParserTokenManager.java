@@ -5,6 +5,15 @@ import java.util.Vector;
 /** Token Manager. */
 public class MiniJavaParserTokenManager implements MiniJavaParserConstants
 {
+   public Symbols symbols = new Symbols();
+   void CommonTokenAction(Token t)
+   {
+      if ( t.kind == IDENTIFIER )
+      {
+         t.symbol = symbols.intern(t.image);
+         t.image = symbols.name(t.symbol);
+      }
+   }
 
   /** Debug output. */
   public  java.io.PrintStream debugStream = System.out;
@@ -1167,6 +1176,7 @@ public Token getNextToken()
       jjmatchedKind = 0;
       matchedToken = jjFillToken();
       matchedToken.specialToken = specialToken;
+      CommonTokenAction(matchedToken);
       return matchedToken;
    }
 
@@ -1186,6 +1196,7 @@ public Token getNextToken()
       {
          matchedToken = jjFillToken();
          matchedToken.specialToken = specialToken;
+         CommonTokenAction(matchedToken);
          return matchedToken;
       }
       else
@@ -0,0 +1,17 @@
+//Options holds the command line options that change how the files are checked
+//Main fills it, and every Checker (one per worker, or per server session) gets the same Options
+public class Options {
+    public boolean fastLexer = false;           //--fast-lexer: use FastTokenManager instead of the generated lexer
+    public boolean compactPositions = false;    //--compact-positions: the generated lexer reads from a JavaCharStream in compact position mode
+    public boolean mmap = false;                //--mmap: the files are mapped in memory (FileChannel.map) and parsed from there
+    public ResultCache cache = null;            //--cache <dir>: the results of the files are kept in dir, and a file that didn't change is not checked again
+    public AstSnapshot snapshots = null;        //--snapshots <dir>: the parsed files are kept in dir, and a file that didn't change is not parsed again
+    public boolean singlePass = false;          //--single-pass: the program is checked with one traversal of the tree (SinglePassVisitor)
+    public boolean parallel = false;            //--parallel: like --single-pass, but the methods are checked in parallel, as ForkJoin tasks
+    public int maxErrors = 1;                   //--max-errors <n>: the checking goes on after an error, until n errors (0 means no limit)
+    public boolean positions = false;           //the line and column of every error is printed in front of it (set by --max-errors)
+    public int layout = ClassLayout.DECLARATION; //--layout=declaration|aligned|packed: how the fields of the objects are placed (see ClassLayout)
+    public boolean layoutReport = false;        //--layout-report: the bytes that the packed layout saves in every class are printed in stderr
+    public String stats = null;                 //--stats or --stats=json: the time and allocation of each phase is printed in stderr, as a table or as json
+    public Symbols symbols = new Symbols();     //the symbols of the identifiers, the same for every file (and every worker) of a batch run
+}
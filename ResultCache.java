@@ -0,0 +1,282 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+//ResultCache keeps the results of checked files in a directory (--cache <dir>), so a file that didn't change is not checked again
+//The key of a result is the SHA-256 of the contents of the file, together with the version of the checker (VERSION, and
+//the class files of the checker next to ResultCache: the ones at the top of its directory or jar and the ones in syntaxtree/
+//and visitor/, not the ones of bench/ or of other directories), and the result is what the check printed in out and in err, and how it ended
+//(ok, or the message of the parse error, of the lexical error or of the error of the visitors)
+//The cache keeps at most maxBytes of results: when it has more, the least recently used ones are deleted
+//A Checker uses it only in checkFile, and it can be shared by the workers of Batch, and by other processes using the same directory
+public class ResultCache {
+    static final String VERSION = "1";          //change it when the output changes in a way that the class files don't show
+
+    static final int OK = 0, PARSE_ERROR = 1, LEXICAL_ERROR = 2, CHECK_ERROR = 3;
+    static final String SUFFIX = ".result";
+    static final List<String> PACKAGES = Arrays.asList("", "syntaxtree/", "visitor/");     //the directories of the checker's class files
+
+    //the result of a check
+    static class Result {
+        int kind = OK;
+        String message;             //the message of the error (null if kind is OK)
+        byte[] out;
+        byte[] err;
+
+        //prints the output of the check again, and throws the same error the check threw
+        void replay(PrintStream out, PrintStream err) throws Exception {
+            out.write(this.out, 0, this.out.length);
+            err.write(this.err, 0, this.err.length);
+            switch(kind){
+                case PARSE_ERROR: throw new ParseException(message);
+                case LEXICAL_ERROR: throw new TokenMgrError(message, TokenMgrError.LEXICAL_ERROR);
+                case CHECK_ERROR: throw new CheckError(message);
+            }
+        }
+    }
+
+    private final File dir;
+    private final long maxBytes;
+    private final byte[] version;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<String, Long>(16, 0.75f, true);  //key -> size of its file, least recently used first
+    private long size;
+    private long hits, misses, evictions;
+
+    //throws an IOException if the class files of the checker can't be read (the results could come from another version)
+    public ResultCache(File dir, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.version = version();
+
+        if(!dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("cannot create the cache directory " + dir);
+
+        //the files that are already there, from the least recently used (the access time is kept as the modification time)
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SUFFIX));
+        long[] modified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for(int i = 0; i < files.length; i++){
+            modified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(modified[a], modified[b]));
+        for(int i: order){
+            String name = files[i].getName();
+            long length = files[i].length();
+            entries.put(name.substring(0, name.length() - SUFFIX.length()), length);
+            size += length;
+        }
+
+        synchronized(this){
+            evict();
+        }
+    }
+
+    //the digest of VERSION and of the names and contents of the class files of PACKAGES where ResultCache was loaded from (so
+    //the parser, the visitors, syntaxtree and visitor are all in it, and a new class can't be forgotten, but compiling a
+    //benchmark in bench/ doesn't empty the cache), in the order of their names
+    private static byte[] version() throws IOException {
+        CodeSource source = ResultCache.class.getProtectionDomain().getCodeSource();
+        if(source == null) throw new IOException("cannot find the class files of the checker for the cache version");
+        Path location;
+        try{
+            location = Paths.get(source.getLocation().toURI());
+        }
+        catch(URISyntaxException | IllegalArgumentException ex){
+            throw new IOException("cannot read the class files of the checker in " + source.getLocation() + " for the cache version");
+        }
+
+        MessageDigest digest = sha256();
+        digest.update(VERSION.getBytes(StandardCharsets.UTF_8));
+        int classes = 0;
+        if(Files.isDirectory(location)){
+            List<Path> files = new ArrayList<Path>();
+            for(String pkg: PACKAGES){
+                Path directory = location.resolve(pkg);
+                if(!Files.isDirectory(directory)) continue;
+                try(Stream<Path> list = Files.list(directory)){
+                    list.filter(path -> path.toString().endsWith(".class") && Files.isRegularFile(path)).forEach(files::add);
+                }
+            }
+            List<String> names = new ArrayList<String>();
+            for(Path file: files) names.add(location.relativize(file).toString().replace(File.separatorChar, '/'));
+            Collections.sort(names);
+            for(String name: names){
+                digestClass(digest, name, Files.readAllBytes(location.resolve(name)));
+                classes++;
+            }
+        }else{
+            try(JarFile jar = new JarFile(location.toFile())){
+                List<String> names = new ArrayList<String>();
+                for(Enumeration<JarEntry> e = jar.entries(); e.hasMoreElements(); ){
+                    String name = e.nextElement().getName();
+                    if(checkerClass(name)) names.add(name);
+                }
+                Collections.sort(names);
+                for(String name: names){
+                    try(InputStream in = jar.getInputStream(jar.getJarEntry(name))){
+                        digestClass(digest, name, in.readAllBytes());
+                    }
+                    classes++;
+                }
+            }
+        }
+        if(classes == 0) throw new IOException("no class files of the checker in " + location + " for the cache version");
+        return digest.digest();
+    }
+
+    //if the entry of the jar is a class file of PACKAGES
+    private static boolean checkerClass(String name){
+        if(!name.endsWith(".class")) return false;
+        return PACKAGES.contains(name.substring(0, name.lastIndexOf('/') + 1));
+    }
+
+    private static void digestClass(MessageDigest digest, String name, byte[] bytes){
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256(){
+        try{
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch(NoSuchAlgorithmException ex){
+            throw new IllegalStateException(ex);        //every jvm has SHA-256
+        }
+    }
+
+    //the key of a file with the given contents, checked with the given options (the ones that change the output)
+    public String key(byte[] source, String options){
+        MessageDigest digest = sha256();
+        digest.update(version);
+        digest.update(options.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(source);
+
+        StringBuilder hex = new StringBuilder();
+        for(byte b: digest.digest()) hex.append(String.format("%02x", b & 0xff));
+        return hex.toString();
+    }
+
+    private File file(String key){
+        return new File(dir, key + SUFFIX);
+    }
+
+    //returns the result of the key, or null if the cache doesn't have it
+    //The file is read even if the key is not in entries, because another process may have added it
+    public Result get(String key){
+        File file = file(key);
+        Result result = null;
+        if(file.isFile()){
+            try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))){
+                result = new Result();
+                result.kind = in.readInt();
+                byte[] message = readBytes(in);
+                result.message = message == null ? null : new String(message, StandardCharsets.UTF_8);
+                result.out = readBytes(in);
+                result.err = readBytes(in);
+                if(result.out == null || result.err == null) result = null;
+            }
+            catch(IOException ex){
+                result = null;                  //a broken file (or one that was just evicted) is a miss, and put replaces it
+            }
+        }
+
+        synchronized(this){
+            if(result == null){
+                misses++;
+                return null;
+            }
+            hits++;
+            if(entries.get(key) == null){
+                long length = file.length();
+                entries.put(key, length);
+                size += length;
+            }
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return result;
+    }
+
+    //stores the result of the key, and deletes the least recently used results if the cache got too big
+    public void put(String key, Result result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(result.kind);
+        writeBytes(data, result.message == null ? null : result.message.getBytes(StandardCharsets.UTF_8));
+        writeBytes(data, result.out);
+        writeBytes(data, result.err);
+        data.flush();
+
+        //written in a temporary file first, so that nobody reads a half written result
+        File tmp = File.createTempFile(key, ".tmp", dir);
+        try{
+            Files.write(tmp.toPath(), bytes.toByteArray());
+            Files.move(tmp.toPath(), file(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally{
+            tmp.delete();
+        }
+
+        synchronized(this){
+            Long old = entries.put(key, (long) bytes.size());
+            if(old != null) size -= old;
+            size += bytes.size();
+            evict();
+        }
+    }
+
+    private void evict(){
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while(size > maxBytes && iterator.hasNext()){
+            Map.Entry<String, Long> entry = iterator.next();
+            file(entry.getKey()).delete();
+            size -= entry.getValue();
+            evictions++;
+            iterator.remove();
+        }
+    }
+
+    private static void writeBytes(DataOutputStream data, byte[] bytes) throws IOException {
+        if(bytes == null){
+            data.writeInt(-1);
+            return;
+        }
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    //the stream is over the bytes of the whole file, so available() is what is left of it, and a broken length can't
+    //make a big array
+    private static byte[] readBytes(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if(length < 0) return null;
+        if(length > data.available()) throw new EOFException("the result file is shorter than its lengths");
+        byte[] bytes = new byte[length];
+        data.readFully(bytes);
+        return bytes;
+    }
+
+    public synchronized void printCounters(PrintStream err){
+        err.printf("cache: %d hits, %d misses, %d evictions, %d results (%.1f KB)\n", hits, misses, evictions, entries.size(), size / 1024.0);
+    }
+}
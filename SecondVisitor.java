@@ -1,15 +1,41 @@
 import syntaxtree.*;
 import visitor.*;
-import java.util.ArrayList;
-
-public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
+import java.io.PrintStream;
+
+//SecondVisitor uses the filled symbol table to check the types of the statements and the expressions
+//Every expression returns its TypeRef, and since every type has only one TypeRef, the types are compared with ==
+//The names (of classes, methods and variables) are read straight from the Identifier nodes: an Identifier that gets visited is a type
+//They are looked up by the symbols of their tokens (NodeToken.symbol, see Symbols), the strings are only used in the messages
+//An error is reported to the Diagnostics, and the CheckError is caught at the end of its statement (or declaration, or return), so
+//the checking goes on with the next one, until the Diagnostics have as many errors as their limit
+public class SecondVisitor extends GJSwitchDepthFirst<TypeRef, symbolTable>{
     public Classes currentClass;                            //keeps the track of which class the program is currently checking
     public Methods currentMethod;                           //keeps the track of which method the program is currently checking (null if the checking is outside of a method)
-    ArrayList<ArrayList<String>> expressionLists;           //a list of lists, each list holds the parameters of a method (used in ExpressionList)
-    int depth = 0;                                          //used in sendMessage, in tandem with the expressionLists, in the event of a method, which calls a method, which calls a method etc.
+    Diagnostics diagnostics;                                //where the errors get reported (and printed)
 
     public SecondVisitor(){
-        this.expressionLists = new ArrayList<ArrayList<String>>();
+        this(System.out);
+    }
+
+    public SecondVisitor(PrintStream out){
+        this(new Diagnostics(out));
+    }
+
+    public SecondVisitor(Diagnostics diagnostics){
+        this.diagnostics = diagnostics;
+    }
+
+    //called where the checking can go on after an error: it stops only when no more errors can be reported
+    private void recover(CheckError error) throws CheckError {
+        if(diagnostics.full()) throw error;
+    }
+
+    //returns the variable with the name: a parameter or a variable of the current method, or else a field of the current class
+    //(its own, or one of a parent, from the field table), or null. The result has the slot of the variable, for the phases after this one
+    private Variables variable(NodeToken name){
+        Variables variable = currentMethod.getVarOrPar(name.symbol);
+        if(variable != null) return variable;
+        return currentClass.lookupField(name.symbol);
     }
 
     /**
@@ -32,17 +58,12 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f16 -> "}"
      * f17 -> "}"
      */
-    public String visit(MainClass n, symbolTable symTable) throws Exception {
-        String className = n.f1.accept(this, symTable);
-
-        currentClass = symTable.getClass(className);
-        currentMethod = currentClass.getMethod("main");             //first class will always contain the method "main"
+    public TypeRef visit(MainClass n, symbolTable symTable) throws Exception {
+        currentClass = symTable.getClass(n.f1.f0.symbol);
+        currentMethod = currentClass.getMethod(Symbols.MAIN);       //first class will always contain the method "main"
 
-        n.f5.accept(this, symTable);
-        n.f6.accept(this, symTable);
-        n.f11.accept(this, symTable);
-        n.f14.accept(this, symTable);
-        n.f15.accept(this, symTable);
+        dispatch(n.f14, symTable);
+        dispatch(n.f15, symTable);
 
         currentMethod = null;
         currentClass = null;
@@ -58,13 +79,11 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f4 -> ( MethodDeclaration() )*
      * f5 -> "}"
      */
-    public String visit(ClassDeclaration n, symbolTable symTable) throws Exception {
-        String className = n.f1.accept(this, symTable);
+    public TypeRef visit(ClassDeclaration n, symbolTable symTable) throws Exception {
+        currentClass = symTable.getClass(n.f1.f0.symbol);
 
-        currentClass = symTable.getClass(className);
-
-        n.f3.accept(this, symTable);
-        n.f4.accept(this, symTable);
+        dispatch(n.f3, symTable);
+        dispatch(n.f4, symTable);
 
         currentMethod = null;
         currentClass = null;
@@ -82,14 +101,11 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f6 -> ( MethodDeclaration() )*
      * f7 -> "}"
      */
-    public String visit(ClassExtendsDeclaration n, symbolTable symTable) throws Exception {
-        String className = n.f1.accept(this, symTable);
-        String parentName = n.f3.accept(this, symTable);
-
-        currentClass = symTable.getClass(className);
+    public TypeRef visit(ClassExtendsDeclaration n, symbolTable symTable) throws Exception {
+        currentClass = symTable.getClass(n.f1.f0.symbol);
 
-        n.f5.accept(this, symTable);
-        n.f6.accept(this, symTable);
+        dispatch(n.f5, symTable);
+        dispatch(n.f6, symTable);
 
         currentMethod = null;
         currentClass = null;
@@ -112,88 +128,34 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f11 -> ";"
      * f12 -> "}"
      */
-    public String visit(MethodDeclaration n, symbolTable symTable) throws Exception {
-        String methodType = n.f1.accept(this, symTable);
-        String methodName = n.f2.accept(this, symTable);
-
-        currentMethod = currentClass.getMethod(methodName);
+    public TypeRef visit(MethodDeclaration n, symbolTable symTable) throws Exception {
+        currentMethod = currentClass.getMethod(n.f2.f0.symbol);
 
-        String argumentList = n.f4.present() ? n.f4.accept(this, symTable) : "";
-
-        n.f7.accept(this, symTable);
-        n.f8.accept(this, symTable);
-
-        String returns = n.f10.accept(this, symTable);
-
-        Classes tmpClass = null;
-
-        if(!returns.equals(methodType)){
-            tmpClass = symTable.getClass(returns);          //check to see if return type is a parent class
-            if(tmpClass != null){
-                tmpClass = tmpClass.parentClass;
-                while(tmpClass != null){
-                    if(methodType.equals(tmpClass.className)){
-                        break;
-                    }
-                    tmpClass = tmpClass.parentClass;
-                }
-            }
-        }
-
-        //if tmpClass == null, then that means that the above block of code, never found a parent class with the same name as the method return type
-        if(tmpClass == null && !returns.equals(methodType)){
-            System.out.printf("error: return type ('%s') does not correspond to method's return type ('%s') in '%s' method!\n", returns, methodType, methodName);
-            throw new Exception("error: return type ("+ returns +") does not correspond to method's return type ("+ methodType +") in " + methodName +" method!");
-        }
+        dispatch(n.f7, symTable);
+        checkBody(n, symTable);
 
         currentMethod = null;
         return null;
     }
 
-    /**
-     * f0 -> FormalParameter()
-     * f1 -> FormalParameterTail()
-     */
-    public String visit(FormalParameterList n, symbolTable symTable) throws Exception {
-        String ret = n.f0.accept(this, symTable);
+    //checks the statements and the returned value of the current method (SinglePassVisitor calls it after the whole traversal)
+    void checkBody(MethodDeclaration n, symbolTable symTable) throws Exception {
+        TypeRef methodType = currentMethod.returns;
+        String methodName = currentMethod.methodName;
 
-        if (n.f1 != null) {
-            ret += n.f1.accept(this, symTable);
-        }
+        dispatch(n.f8, symTable);
 
-        return ret;
-    }
+        try{
+            TypeRef returns = dispatch(n.f10, symTable);
 
-    /**
-     * f0 -> FormalParameter()
-     * f1 -> FormalParameterTail()
-     */
-    public String visit(FormalParameterTerm n, symbolTable symTable) throws Exception {
-        return n.f1.accept(this, symTable);
-    }
-
-    /**
-     * f0 -> ","
-     * f1 -> FormalParameter()
-     */
-    public String visit(FormalParameterTail n, symbolTable symTable) throws Exception {
-        String ret = "";
-        for ( Node node: n.f0.nodes) {
-            ret += ", " + node.accept(this, symTable);
+            //the returned value can be of the return type, or of a class that extends it
+            if(!symTable.isSubtype(returns, methodType)){
+                throw diagnostics.report(n.f9, String.format("error: return type ('%s') does not correspond to method's return type ('%s') in '%s' method!\n", returns, methodType, methodName), "error: return type ("+ returns +") does not correspond to method's return type ("+ methodType +") in " + methodName +" method!");
+            }
+        }
+        catch(CheckError error){
+            recover(error);
         }
-
-        return ret;
-    }
-
-    /**
-     * f0 -> Type()
-     * f1 -> Identifier()
-     */
-    public String visit(FormalParameter n, symbolTable symTable) throws Exception{
-        String type = n.f0.accept(this, symTable);
-        String name = n.f1.accept(this, symTable);
-
-        return type + " " + name;
     }
 
     /**
@@ -201,31 +163,46 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f1 -> Identifier()
      * f2 -> ";"
      */
-    public String visit(VarDeclaration n, symbolTable symTable) throws Exception {
-        String variableType = n.f0.accept(this, symTable);
-        String variableName = n.f1.accept(this, symTable);
+    public TypeRef visit(VarDeclaration n, symbolTable symTable) throws Exception {
+        TypeRef variableType = dispatch(n.f0, symTable);
+        String variableName = n.f1.f0.toString();
 
         //now that the symbol table is filled, we can check if the variable is declared as a class that has actually been declared
-        if(!variableType.equals("boolean") && !variableType.equals("int") & !variableType.equals("int[]") && symTable.getClass(variableType) == null){
-            System.out.printf("error: '%s' variable needs to be one of allowed types: boolean, int, int[] or a declared class but is '%s'!\n", variableName,variableType);
-            throw new Exception("error: "+ variableName +" variable needs to be one of allowed types: boolean, int, int[] or a declared class but is " + variableType +"!");
+        if(variableType instanceof ClassTypeRef && variableType.declaration() == null){
+            recover(diagnostics.report(n.f1, String.format("error: '%s' variable needs to be one of allowed types: boolean, int, int[] or a declared class but is '%s'!\n", variableName,variableType), "error: "+ variableName +" variable needs to be one of allowed types: boolean, int, int[] or a declared class but is " + variableType +"!"));
         }
 
-        variableName = variableName + ' ' +  n.f1.accept(this, symTable);
+        return variableType;
+    }
 
-        return variableName;
+    /**
+     * f0 -> Block()
+     *       | AssignmentStatement()
+     *       | ArrayAssignmentStatement()
+     *       | IfStatement()
+     *       | WhileStatement()
+     *       | PrintStatement()
+     */
+    public TypeRef visit(Statement n, symbolTable symTable) throws Exception {
+        try{
+            dispatch(n.f0, symTable);
+        }
+        catch(CheckError error){
+            recover(error);                                 //the checking goes on with the next statement
+        }
+        return null;
     }
 
-    public String visit(ArrayType n, symbolTable symTable) {
-        return "int[]";
+    public TypeRef visit(ArrayType n, symbolTable symTable) {
+        return TypeRef.INT_ARRAY;
     }
 
-    public String visit(BooleanType n, symbolTable symTable) {
-        return "boolean";
+    public TypeRef visit(BooleanType n, symbolTable symTable) {
+        return TypeRef.BOOLEAN;
     }
 
-    public String visit(IntegerType n, symbolTable symTable) {
-        return "int";
+    public TypeRef visit(IntegerType n, symbolTable symTable) {
+        return TypeRef.INT;
     }
 
     // /**
@@ -239,8 +216,8 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
     // *       | MessageSend()
     // *       | Clause()
     // */
-    public String visit(Expression n, symbolTable symTable) throws Exception {
-        return n.f0.accept(this, symTable);
+    public TypeRef visit(Expression n, symbolTable symTable) throws Exception {
+        return dispatch(n.f0, symTable);
     }
 
     /**
@@ -248,14 +225,13 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f1 -> "&&"
      * f2 -> Clause()
      */
-    public String visit(AndExpression n, symbolTable symTable) throws Exception {
-        String value0 = n.f0.accept(this, symTable);
-        String value1 = n.f2.accept(this, symTable);
-        if(value0.equals("boolean") && value1.equals("boolean")){
-            return "boolean";
+    public TypeRef visit(AndExpression n, symbolTable symTable) throws Exception {
+        TypeRef value0 = dispatch(n.f0, symTable);
+        TypeRef value1 = dispatch(n.f2, symTable);
+        if(value0 == TypeRef.BOOLEAN && value1 == TypeRef.BOOLEAN){
+            return TypeRef.BOOLEAN;
         }
-        System.out.printf("error: And ('&&') Expression with wrong types ('%s') and ('%s')!\n", value0, value1);
-        throw new Exception("error: And ('&&') Expression with wrong types " + value0 + " and "+ value1+ "!");
+        throw diagnostics.report(n, String.format("error: And ('&&') Expression with wrong types ('%s') and ('%s')!\n", value0, value1), "error: And ('&&') Expression with wrong types " + value0 + " and "+ value1+ "!");
     }
 
     /**
@@ -263,14 +239,13 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f1 -> "<"
      * f2 -> PrimaryExpression()
      */
-    public String visit(CompareExpression n, symbolTable symTable) throws Exception {
-        String value0 = n.f0.accept(this, symTable);
-        String value1 = n.f2.accept(this, symTable);
-        if(value0.equals("int") && value1.equals("int")){
-            return "boolean";
+    public TypeRef visit(CompareExpression n, symbolTable symTable) throws Exception {
+        TypeRef value0 = dispatch(n.f0, symTable);
+        TypeRef value1 = dispatch(n.f2, symTable);
+        if(value0 == TypeRef.INT && value1 == TypeRef.INT){
+            return TypeRef.BOOLEAN;
         }
-        System.out.printf("error: Compare ('<') Expression with wrong types ('%s') and ('%s')!\n", value0, value1);
-        throw new Exception("error: Compare ('<') Expression with wrong types " + value0 + " and "+ value1+ "!");
+        throw diagnostics.report(n, String.format("error: Compare ('<') Expression with wrong types ('%s') and ('%s')!\n", value0, value1), "error: Compare ('<') Expression with wrong types " + value0 + " and "+ value1+ "!");
     }
 
     /**
@@ -278,14 +253,13 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f1 -> "+"
      * f2 -> PrimaryExpression()
      */
-    public String visit(PlusExpression n, symbolTable symTable) throws Exception {
-        String value0 = n.f0.accept(this, symTable);
-        String value1 = n.f2.accept(this, symTable);
-        if(value0.equals("int") && value1.equals("int")){
-            return "int";
+    public TypeRef visit(PlusExpression n, symbolTable symTable) throws Exception {
+        TypeRef value0 = dispatch(n.f0, symTable);
+        TypeRef value1 = dispatch(n.f2, symTable);
+        if(value0 == TypeRef.INT && value1 == TypeRef.INT){
+            return TypeRef.INT;
         }
-        System.out.printf("error: Plus ('+') Expression with wrong types ('%s') and ('%s')!\n", value0, value1);
-        throw new Exception("error: Plus ('+') Expression with wrong types " + value0 + " and "+ value1+ "!");
+        throw diagnostics.report(n, String.format("error: Plus ('+') Expression with wrong types ('%s') and ('%s')!\n", value0, value1), "error: Plus ('+') Expression with wrong types " + value0 + " and "+ value1+ "!");
     }
 
     /**
@@ -293,14 +267,13 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f1 -> "-"
      * f2 -> PrimaryExpression()
      */
-    public String visit(MinusExpression n, symbolTable symTable) throws Exception {
-        String value0 = n.f0.accept(this, symTable);
-        String value1 = n.f2.accept(this, symTable);
-        if(value0.equals("int") && value1.equals("int")){
-            return "int";
+    public TypeRef visit(MinusExpression n, symbolTable symTable) throws Exception {
+        TypeRef value0 = dispatch(n.f0, symTable);
+        TypeRef value1 = dispatch(n.f2, symTable);
+        if(value0 == TypeRef.INT && value1 == TypeRef.INT){
+            return TypeRef.INT;
         }
-        System.out.printf("error: Minus ('-') Expression with wrong types ('%s') and ('%s')!\n", value0, value1);
-        throw new Exception("error: Minus ('-') Expression with wrong types " + value0 + " and "+ value1+ "!");
+        throw diagnostics.report(n, String.format("error: Minus ('-') Expression with wrong types ('%s') and ('%s')!\n", value0, value1), "error: Minus ('-') Expression with wrong types " + value0 + " and "+ value1+ "!");
     }
 
     /**
@@ -308,14 +281,13 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f1 -> "*"
      * f2 -> PrimaryExpression()
      */
-    public String visit(TimesExpression n, symbolTable symTable) throws Exception {
-        String value0 = n.f0.accept(this, symTable);
-        String value1 = n.f2.accept(this, symTable);
-        if(value0.equals("int") && value1.equals("int")){
-            return "int";
+    public TypeRef visit(TimesExpression n, symbolTable symTable) throws Exception {
+        TypeRef value0 = dispatch(n.f0, symTable);
+        TypeRef value1 = dispatch(n.f2, symTable);
+        if(value0 == TypeRef.INT && value1 == TypeRef.INT){
+            return TypeRef.INT;
         }
-        System.out.printf("error: Times ('*') Expression with wrong types ('%s') and ('%s')!\n", value0, value1);
-        throw new Exception("error: Times ('*') Expression with wrong types " + value0 + " and "+ value1+ "!");
+        throw diagnostics.report(n, String.format("error: Times ('*') Expression with wrong types ('%s') and ('%s')!\n", value0, value1), "error: Times ('*') Expression with wrong types " + value0 + " and "+ value1+ "!");
     }
 
     /**
@@ -324,24 +296,18 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f2 -> PrimaryExpression()
      * f3 -> "]"
      */
-    public String visit(ArrayLookup n, symbolTable symTable) throws Exception {
-        String value0 = n.f0.accept(this, symTable);
-        String value1 = n.f2.accept(this, symTable);
-        if(value0.equals("int[]") && value1.equals("int")){
-            return "int";
+    public TypeRef visit(ArrayLookup n, symbolTable symTable) throws Exception {
+        TypeRef value0 = dispatch(n.f0, symTable);
+        TypeRef value1 = dispatch(n.f2, symTable);
+        if(value0 != TypeRef.INT_ARRAY){
+            throw diagnostics.report(n, String.format("error: wrong type ('%s') in array lookup!\n", value0), "error: wrong type (" + value0 + ") in array lookup!");
         }
 
-        if(!value0.equals("int[]")){
-            System.out.printf("error: wrong type ('%s') in array lookup!\n", value0);
-            throw new Exception("error: wrong type (" + value0 + ") in array lookup!");
+        if(value1 != TypeRef.INT){
+            throw diagnostics.report(n, String.format("error: wrong type ('%s') in array index!\n", value1), "error: wrong type (" + value1 + ") in array index!");
         }
 
-        if(!value1.equals("int")){
-            System.out.printf("error: wrong type ('%s') in array index!\n", value1);
-            throw new Exception("error: wrong type (" + value1 + ") in array index!");
-        }
-
-        throw new Exception("incorrect type in ArrayLookup!");
+        return TypeRef.INT;
     }
 
     /**
@@ -349,13 +315,18 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f1 -> "."
      * f2 -> "length"
      */
-    public String visit(ArrayLength n, symbolTable symTable) throws Exception {
-        String type = n.f0.accept(this, symTable);
-        if(type.equals("int[]")){
-            return "int";
+    public TypeRef visit(ArrayLength n, symbolTable symTable) throws Exception {
+        TypeRef type = dispatch(n.f0, symTable);
+        if(type == TypeRef.INT_ARRAY){
+            return TypeRef.INT;
         }
-        System.out.printf("error: Only int[] can make use of .length but '%s' was used!\n", type);
-        throw new Exception("error: Only int[] can make use of .length but " + type + " was used!");
+        throw diagnostics.report(n, String.format("error: Only int[] can make use of .length but '%s' was used!\n", type), "error: Only int[] can make use of .length but " + type + " was used!");
+    }
+
+    //visits the argument in the given position of a call, and returns true if it can be given to the parameter in that position
+    private boolean argument(Expression argument, TypeRef[] parameters, int index, symbolTable symTable) throws Exception {
+        TypeRef type = dispatch(argument, symTable);
+        return index < parameters.length && symTable.isSubtype(type, parameters[index]);
     }
 
     /**
@@ -366,116 +337,40 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f4 -> ( ExpressionList() )?
      * f5 -> ")"
      */
-    public String visit(MessageSend n, symbolTable symTable) throws Exception {
-        String className = n.f0.accept(this, symTable);
-        if(symTable.getClass(className) == null){
-            System.out.printf("error: '%s' class has not yet been declared!\n", className);
-            throw new Exception("error: " + className + " class has not yet been delcared!");
-        }
-        Classes tmpClass = symTable.getClass(className);
-        String methodName = n.f2.accept(this, symTable);
-        Methods tmpMethod = tmpClass.methodMap.get(methodName);
-        if(tmpMethod == null){
-            if(tmpClass != null){
-                if(tmpClass.parentClass != null){
-                    tmpClass = tmpClass.parentClass;
-                    while(tmpClass != null){
-                        if(tmpClass.methodMap.get(methodName) != null){
-                            tmpMethod = tmpClass.methodMap.get(methodName);
-                            break;
-                        }
-                        tmpClass = tmpClass.parentClass;
-                    }
-                }
-            }
+    public TypeRef visit(MessageSend n, symbolTable symTable) throws Exception {
+        TypeRef className = dispatch(n.f0, symTable);
+        Classes tmpClass = className.declaration();
+        if(tmpClass == null){
+            throw diagnostics.report(n, String.format("error: '%s' class has not yet been declared!\n", className), "error: " + className + " class has not yet been delcared!");
         }
+        String methodName = n.f2.f0.toString();
+        Methods tmpMethod = tmpClass.lookupMethod(n.f2.f0.symbol);          //the method table has the methods of the parents too
 
-        //if tmpMethod is null, it means that the above block of code never found a method of a parent with the same name as the method is MessageSend
+        //if tmpMethod is null, then neither the class nor any of its parents has a method with the name of the MessageSend
         if(tmpMethod == null){
-            System.out.printf("error: '%s' class does not contain '%s' method!\n", className, methodName);
-            throw new Exception("error: " + className + " class does not contain " + methodName + " method!");
+            throw diagnostics.report(n.f2, String.format("error: '%s' class does not contain '%s' method!\n", className, methodName), "error: " + className + " class does not contain " + methodName + " method!");
         }
 
         //check to see if method's parameters are the same with the parameters given to it
-        String methodParameters = tmpMethod.parameterTypeMap.toString();
-        String parameters = n.f4.accept(this, symTable);
-
-        if(parameters == null && !methodParameters.equals("[]")){
-            System.out.printf("error: wrong parameters given in '%s' method of '%s' class!\n", currentMethod.methodName, currentClass.className);
-            throw new Exception("error: wrong parameters given in "+ currentMethod.methodName  + " method of " + currentClass.className +" class!");
-        }
-
-        //if they are not, check to see if some parameter is a class that extends the correct one
-        if(parameters != null) {
-            int length = parameters.length();
-            String classTmp = parameters.substring(1,length-1);                 //get rid of brackets from returned set
-            int length2 = methodParameters.length();
-            String classTmp2 = methodParameters.substring(1, length2-1);;       //get rid of brackets from returned set
-            Classes tmpClass1 = symTable.getClass(classTmp);
-
-            if(tmpClass1 != null){
-                Classes parentClass = tmpClass1.parentClass;
-                Methods tmpMethod1;
-                while(parentClass != null){
-                    classTmp = parentClass.className;
-                    tmpMethod1 = parentClass.getMethod(methodName);
-                    if(classTmp.equals(classTmp2)){
-                        parameters = methodParameters;
-                    }
-                    parentClass = parentClass.parentClass;
-                }
-            }
-            if(!parameters.equals(methodParameters)){
-                System.out.printf("error: wrong parameters given in '%s' method of '%s' class!\n", currentMethod.methodName, currentClass.className);
-                throw new Exception("error: wrong parameters given in "+ currentMethod.methodName  + " method of " + currentClass.className +" class!");
+        //every argument must be of the type of its parameter, or of a class that extends it. The arguments are checked one by one
+        //as they are visited, and all of them are visited before the error, so an error inside an argument is found first
+        TypeRef[] parameters = tmpMethod.parameterTypes;
+        int count = 0;
+        boolean same = true;
+        if(n.f4.present()){
+            ExpressionList arguments = (ExpressionList) n.f4.node;
+            same = argument(arguments.f0, parameters, count++, symTable);
+            NodeListOptional terms = arguments.f1.f0;
+            for(int i = 0; i < terms.size(); i++){
+                same &= argument(((ExpressionTerm) terms.elementAt(i)).f1, parameters, count++, symTable);
             }
         }
 
-        return tmpMethod.returns;
-    }
-
-    /**
-     * f0 -> Expression()
-     * f1 -> ExpressionTail()
-     */
-    public String visit(ExpressionList n, symbolTable symTable) throws Exception {
-        //depth increases and decreases recursively, as one method calls another
-        int curDepth = depth++;
-        //create and add the expression list to the list of lists
-        ArrayList<String> newList = new ArrayList<String>();
-        this.expressionLists.add(newList);
-        String start = n.f0.accept(this, symTable);
-
-        this.expressionLists.get(curDepth).add(start);
-
-        String tail = n.f1.accept(this, symTable);
-
-        //ret contains the fully formed expression list of the current depth's method parameters
-        String ret = this.expressionLists.get(curDepth).toString();
-        if(ret == null){
-            return "[]";            //empty array, meaning that the method had no parameters
+        if(!same || count != parameters.length){
+            throw diagnostics.report(n.f2, String.format("error: wrong parameters given in '%s' method of '%s' class!\n", currentMethod.methodName, currentClass.className), "error: wrong parameters given in "+ currentMethod.methodName  + " method of " + currentClass.className +" class!");
         }
-        //clear the list so it can be used in future calls
-        this.expressionLists.get(curDepth).clear();
-        depth--;
-        return ret;
-    }
-
-    /**
-     * f0 -> ( ExpressionTerm() )*
-     */
-    public String visit(ExpressionTail n, symbolTable symTable) throws Exception {
-        return n.f0.accept(this, symTable);
-    }
 
-    /**
-     * f0 -> ","
-     * f1 -> Expression()
-     */
-    public String visit(ExpressionTerm n, symbolTable symTable) throws Exception {
-        String tail = n.f1.accept(this, symTable);
-        this.expressionLists.get(depth-1).add(tail);
-        return tail;
+        return tmpMethod.returns;
     }
 
     /**
@@ -489,96 +384,59 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
     *       | NotExpression()
     *       | BracketExpression()
     */
-    public String visit(PrimaryExpression n, symbolTable symTable) throws Exception {
-        String value = n.f0.accept(this, symTable);
-
-        String type = currentMethod.getVarOrPar(value);
-
-        if(value == null){
-            System.out.print("error: A value is required!\n");
-            throw new Exception("error: A value is required!");
-        }
-
-        if(value.equals("boolean")){
-            return "boolean";
-        }
-
-        if(value.equals("int")){
-            return "int";
-        }
-
-        Classes tmpClass = symTable.getClass(value);
-        if(tmpClass != null){
-            if(symTable.getClass(value) == null){
-                System.out.printf("error: '%s' class has not been declared!\n", value);
-                throw new Exception("error: " + value +" class has not been declared!");
+    public TypeRef visit(PrimaryExpression n, symbolTable symTable) throws Exception {
+        //every choice but an identifier returns its own type
+        if(!(n.f0.choice instanceof Identifier)){
+            TypeRef type = dispatch(n.f0, symTable);
+            if(type == null){
+                throw diagnostics.report(n, "error: A value is required!\n", "error: A value is required!");
             }
-            return value;
-        }
-
-        if(value.equals("int[]")){
-            return "int[]";
+            return type;
         }
 
-        String variableType = currentMethod.getVarOrPar(value);         //if value is nothing of the above, then it must be a variable
-        if(variableType == null){
-            variableType = currentClass.variableMap.get(value);         //look if variable has been declared outside the method (either in class, or class' parent)
-
-            if(variableType == null){
-                Classes parentClass = currentClass.parentClass;
-                if(parentClass != null) {
-                    tmpClass = currentClass.parentClass;
-                    while(tmpClass != null){
-                        if(tmpClass.variableMap.get(value) != null){
-                            variableType = tmpClass.variableMap.get(value);
-                            break;
-                        }
-                        tmpClass = tmpClass.parentClass;
-                    }
-                }
-            }
-        }
-        if(variableType == null){
-            System.out.printf("error: '%s' variable  has not been declared yet in '%s' method!\n", value, currentMethod.methodName);
-            throw new Exception("error: "+ value + " variable  has not been declared yet in " + currentMethod.methodName + " method!");
+        NodeToken identifier = ((Identifier) n.f0.choice).f0;
+        String value = identifier.toString();
+        Variables variable = variable(identifier);               //an identifier in an expression must be a variable (of the method, or of the class, or of one of its parents)
+        if(variable == null){
+            throw diagnostics.report(n, String.format("error: '%s' variable  has not been declared yet in '%s' method!\n", value, currentMethod.methodName), "error: "+ value + " variable  has not been declared yet in " + currentMethod.methodName + " method!");
         }
-        return variableType;
+        return variable.type;
     }
 
     /**
      * f0 -> <INTEGER_LITERAL>
      */
-    public String visit(IntegerLiteral n, symbolTable symTable) throws Exception {
-        return "int";
+    public TypeRef visit(IntegerLiteral n, symbolTable symTable) throws Exception {
+        return TypeRef.INT;
     }
 
     /**
      * f0 -> "true"
      */
-    public String visit(TrueLiteral n, symbolTable symTable) throws Exception {
-        return "boolean";
+    public TypeRef visit(TrueLiteral n, symbolTable symTable) throws Exception {
+        return TypeRef.BOOLEAN;
     }
 
     /**
      * f0 -> "false"
      */
-    public String visit(FalseLiteral n, symbolTable symTable) throws Exception {
-        return "boolean";
+    public TypeRef visit(FalseLiteral n, symbolTable symTable) throws Exception {
+        return TypeRef.BOOLEAN;
     }
 
     /**
      * f0 -> <IDENTIFIER>
      */
-    public String visit(Identifier n, symbolTable symTable) throws Exception {
-        return n.f0.toString();
+    public TypeRef visit(Identifier n, symbolTable symTable) throws Exception {
+        return symTable.classType(n.f0.symbol, n.f0.tokenImage);         //only the identifiers of types get visited (of a declaration, or of a new)
     }
 
 
     /**
      * f0 -> "this"
      */
-    public String visit(ThisExpression n, symbolTable symTable) throws Exception {
-        return currentClass.className;
+    public TypeRef visit(ThisExpression n, symbolTable symTable) throws Exception {
+        return currentClass.type;
     }
 
     /**
@@ -588,14 +446,13 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f3 -> Expression()
      * f4 -> "]"
      */
-    public String visit(ArrayAllocationExpression n, symbolTable symTable) throws Exception {
-        String typeCheck = n.f3.accept(this, symTable);
+    public TypeRef visit(ArrayAllocationExpression n, symbolTable symTable) throws Exception {
+        TypeRef typeCheck = dispatch(n.f3, symTable);
 
-        if(!typeCheck.equals("int")){
-            System.out.printf("error: type given is '%s' but 'int' is required, in array!\n", typeCheck);
-            throw new Exception("error: type given is " + typeCheck + " but 'int' is required, in array!");
+        if(typeCheck != TypeRef.INT){
+            throw diagnostics.report(n, String.format("error: type given is '%s' but 'int' is required, in array!\n", typeCheck), "error: type given is " + typeCheck + " but 'int' is required, in array!");
         }
-        return "int[]";
+        return TypeRef.INT_ARRAY;
     }
 
     /**
@@ -604,11 +461,10 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f2 -> "("
      * f3 -> ")"
      */
-    public String visit(AllocationExpression n, symbolTable symTable) throws Exception {
-        String className = n.f1.accept(this, symTable);
-        if(symTable.getClass(className) == null){
-            System.out.printf("error: '%s' class has not been declared!\n", className);
-            throw new Exception("error: " + className + " class has not been declared!");
+    public TypeRef visit(AllocationExpression n, symbolTable symTable) throws Exception {
+        TypeRef className = dispatch(n.f1, symTable);
+        if(className.declaration() == null){
+            throw diagnostics.report(n, String.format("error: '%s' class has not been declared!\n", className), "error: " + className + " class has not been declared!");
         }
 
         return className;
@@ -618,13 +474,12 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f0 -> "!"
      * f1 -> PrimaryExpression()
      */
-    public String visit(NotExpression n, symbolTable symTable) throws Exception {
-        String typeCheck = n.f1.accept(this, symTable);
-        if(typeCheck.equals("boolean")){
-            return "boolean";
+    public TypeRef visit(NotExpression n, symbolTable symTable) throws Exception {
+        TypeRef typeCheck = dispatch(n.f1, symTable);
+        if(typeCheck == TypeRef.BOOLEAN){
+            return TypeRef.BOOLEAN;
         }
-        System.out.printf("error: NotExpression ('!') with wrong type ('%s')!\n", typeCheck);
-        throw new Exception("error: NotExpression ('!') with wrong type ("+ typeCheck +")!");
+        throw diagnostics.report(n, String.format("error: NotExpression ('!') with wrong type ('%s')!\n", typeCheck), "error: NotExpression ('!') with wrong type ("+ typeCheck +")!");
     }
 
     /**
@@ -632,8 +487,8 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f1 -> Expression()
      * f2 -> ")"
      */
-    public String visit(BracketExpression n, symbolTable symTable) throws Exception {
-        return n.f1.accept(this, symTable);
+    public TypeRef visit(BracketExpression n, symbolTable symTable) throws Exception {
+        return dispatch(n.f1, symTable);
     }
 
     /**
@@ -642,54 +497,22 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f2 -> Expression()
      * f3 -> ";"
      */
-    public String visit(AssignmentStatement n, symbolTable symTable) throws Exception {
-        String assignment = n.f0.accept(this, symTable);
-        String type = n.f2.accept(this, symTable);
-
-        String typeCheck = currentMethod.getVarOrPar(assignment);
-        if(typeCheck == null){
-            typeCheck = currentClass.variableMap.get(assignment);
-
-            if(typeCheck == null){
-                if(currentClass.parentClass != null){
-                    String parent = currentClass.parentClass.className;
-                    Classes tmpClass = symTable.getClass(parent);
-                    while(tmpClass != null){
-                        if(tmpClass.variableMap.get(assignment) != null){
-                            typeCheck = tmpClass.variableMap.get(assignment);
-                            break;
-                        }
-                        tmpClass = tmpClass.parentClass;
-                    }
-                }
-            }
-        }
+    public TypeRef visit(AssignmentStatement n, symbolTable symTable) throws Exception {
+        String assignment = n.f0.f0.toString();
+        TypeRef type = dispatch(n.f2, symTable);
 
-        if(typeCheck == null){
-            System.out.printf("error: '%s' variable has not been declared!\n", assignment);
-            throw new Exception("error: " + assignment + " variable has not been declared!");
-        }
-
-        boolean flag = false;
-        if(!typeCheck.equals(type)){                        //check if type is a parent class
-            Classes tmpClass = symTable.getClass(type);
-            if(tmpClass != null){
-                Classes tmpParentClass = tmpClass.parentClass;
-                if(tmpParentClass != null){
-                    if(!tmpParentClass.className.equals(typeCheck)){
-                        System.out.printf("error: incorrect type matching! Assigned '%s' to '%s' in '%s' method!\n", type, typeCheck, currentMethod.methodName);
-                        throw new Exception("error: incorrect type matching! Assigned " + type + " to " + typeCheck + " in method: " + currentMethod.methodName);
-                    }else flag = true;
-                }
-            }
+        Variables variable = variable(n.f0.f0);
+        if(variable == null){
+            throw diagnostics.report(n, String.format("error: '%s' variable has not been declared!\n", assignment), "error: " + assignment + " variable has not been declared!");
         }
+        TypeRef typeCheck = variable.type;
 
-        if(!flag && !typeCheck.equals(type)){
-            System.out.printf("error: incorrect type matching! Assigned '%s' to '%s' in '%s' method!\n", type, typeCheck, currentMethod.methodName);
-            throw new Exception("error: incorrect type matching! Assigned " + type + " to " + typeCheck + " in method: " + currentMethod.methodName);
+        //the assigned value can be of the type of the variable, or of a class that extends it
+        if(!symTable.isSubtype(type, typeCheck)){
+            throw diagnostics.report(n, String.format("error: incorrect type matching! Assigned '%s' to '%s' in '%s' method!\n", type, typeCheck, currentMethod.methodName), "error: incorrect type matching! Assigned " + type + " to " + typeCheck + " in method: " + currentMethod.methodName);
         }
 
-        return "AssignmentStatement";
+        return null;
     }
 
     /**
@@ -701,47 +524,30 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f5 -> Expression()
      * f6 -> ";"
      */
-    public String visit(ArrayAssignmentStatement n, symbolTable symTable) throws Exception {
-        String assignment = n.f0.accept(this, symTable);
-
-        String typeCheck = currentMethod.getVarOrPar(assignment);
-        if(typeCheck == null){
-            typeCheck = currentClass.variableMap.get(assignment);
-            if(typeCheck == null){
-                Classes tmpClass = currentClass.parentClass;
-                while(tmpClass != null){
-                    if(tmpClass.variableMap.get(assignment) != null){
-                        typeCheck = tmpClass.variableMap.get(assignment);           //typeCheck becomes the type of the assignment (which was declared in a parent class)
-                        break;
-                    }
-                    tmpClass = tmpClass.parentClass;
-                }
-            }
-        }
+    public TypeRef visit(ArrayAssignmentStatement n, symbolTable symTable) throws Exception {
+        String assignment = n.f0.f0.toString();
 
-        if(typeCheck == null){
-            System.out.printf("error: '%s' variable has not been declared!\n", assignment);
-            throw new Exception("error: " + assignment + " variable has not been declared!");
+        Variables variable = variable(n.f0.f0);
+        if(variable == null){
+            throw diagnostics.report(n, String.format("error: '%s' variable has not been declared!\n", assignment), "error: " + assignment + " variable has not been declared!");
         }
+        TypeRef typeCheck = variable.type;
 
-        if(!typeCheck.equals("int[]")){
-            System.out.print("error: incorrect type matching!\n");
-            throw new Exception("error: incorrect type matching!");
+        if(typeCheck != TypeRef.INT_ARRAY){
+            throw diagnostics.report(n, "error: incorrect type matching!\n", "error: incorrect type matching!");
         }
 
-        String indexNumber = n.f2.accept(this, symTable);
-        if(!indexNumber.equals("int")){
-            System.out.print("error: index of int array must be int!\n");
-            throw new Exception("error: index of int array must be int!");
+        TypeRef indexNumber = dispatch(n.f2, symTable);
+        if(indexNumber != TypeRef.INT){
+            throw diagnostics.report(n, "error: index of int array must be int!\n", "error: index of int array must be int!");
         }
 
-        String givenNumber = n.f5.accept(this, symTable);
-        if(!givenNumber.equals("int")){
-            System.out.print("error: index of int array can only receive int!\n");
-            throw new Exception("error: index of int array can only receive int!");
+        TypeRef givenNumber = dispatch(n.f5, symTable);
+        if(givenNumber != TypeRef.INT){
+            throw diagnostics.report(n, "error: index of int array can only receive int!\n", "error: index of int array can only receive int!");
         }
 
-        return "arrayAssignmentStatement";
+        return null;
     }
 
     /**
@@ -753,23 +559,21 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f5 -> "else"
      * f6 -> Statement()
      */
-    public String visit(IfStatement n, symbolTable symTable) throws Exception {
-        String typeCheck = n.f2.accept(this, symTable);
+    public TypeRef visit(IfStatement n, symbolTable symTable) throws Exception {
+        TypeRef typeCheck = dispatch(n.f2, symTable);
 
-        if(typeCheck.equals("int")) {
-            System.out.print("error: While statement requires boolean, but int was given!\n");
-            throw new Exception("error: While statement requires boolean, but int was given!");
+        if(typeCheck == TypeRef.INT) {
+            throw diagnostics.report(n, "error: If statement requires boolean, but int was given!\n", "error: If statement requires boolean, but int was given!");
         }
 
-        if(!typeCheck.equals("boolean")) {
-            System.out.printf("error: If statement requires boolean, but '%s' was given!\n", typeCheck);
-            throw new Exception("error: If statement requires boolean , but +" + typeCheck +  " was given!");
+        if(typeCheck != TypeRef.BOOLEAN) {
+            throw diagnostics.report(n, String.format("error: If statement requires boolean, but '%s' was given!\n", typeCheck), "error: If statement requires boolean , but +" + typeCheck +  " was given!");
         }
 
-        n.f4.accept(this, symTable);
-        n.f6.accept(this, symTable);
+        dispatch(n.f4, symTable);
+        dispatch(n.f6, symTable);
 
-        return "ifStatement";
+        return null;
     }
 
     /**
@@ -779,22 +583,20 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f3 -> ")"
      * f4 -> Statement()
      */
-    public String visit(WhileStatement n, symbolTable symTable) throws Exception {
-        String typeCheck = n.f2.accept(this, symTable);
+    public TypeRef visit(WhileStatement n, symbolTable symTable) throws Exception {
+        TypeRef typeCheck = dispatch(n.f2, symTable);
 
-        if(typeCheck.equals("int")) {
-            System.out.print("error: While statement requires boolean, but int was given!\n");
-            throw new Exception("error: While statement requires boolean, but int was given!");
+        if(typeCheck == TypeRef.INT) {
+            throw diagnostics.report(n, "error: While statement requires boolean, but int was given!\n", "error: While statement requires boolean, but int was given!");
         }
 
-        if(!typeCheck.equals("boolean")) {
-            System.out.printf("error: While statement requires boolean, but '%s' was given!\n", typeCheck);
-            throw new Exception("error: While statement requires boolean, but +" + typeCheck +  " was given!");
+        if(typeCheck != TypeRef.BOOLEAN) {
+            throw diagnostics.report(n, String.format("error: While statement requires boolean, but '%s' was given!\n", typeCheck), "error: While statement requires boolean, but +" + typeCheck +  " was given!");
         }
 
-        n.f4.accept(this, symTable);
+        dispatch(n.f4, symTable);
 
-        return "whileStatement";
+        return null;
     }
 
     /**
@@ -804,14 +606,13 @@ public class SecondVisitor extends GJDepthFirst<String, symbolTable>{
      * f3 -> ")"
      * f4 -> ";"
      */
-    public String visit(PrintStatement n, symbolTable symTable) throws Exception {
-        String typeCheck = n.f2.accept(this, symTable);
+    public TypeRef visit(PrintStatement n, symbolTable symTable) throws Exception {
+        TypeRef typeCheck = dispatch(n.f2, symTable);
 
-        if(typeCheck.equals("boolean") || typeCheck.equals("int") ) {
-            return "printStatement";
+        if(typeCheck == TypeRef.BOOLEAN || typeCheck == TypeRef.INT) {
+            return null;
         }
-        System.out.printf("error: Print statement requires boolean or int, but was given '%s'!\n", typeCheck);
-        throw new Exception("error: Print statement requires boolean or int, but was given "+ typeCheck + "!");
+        throw diagnostics.report(n, String.format("error: Print statement requires boolean or int, but was given '%s'!\n", typeCheck), "error: Print statement requires boolean or int, but was given "+ typeCheck + "!");
     }
 
 }
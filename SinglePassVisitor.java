@@ -0,0 +1,185 @@
+import syntaxtree.*;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//SinglePassVisitor checks a program with one traversal of the tree (--single-pass), instead of FirstVisitor and then SecondVisitor
+//It fills the symbol table like FirstVisitor, but the checks that need every class to be declared (the type of a variable, and
+//the statements of a method, which can use classes and methods that are declared further down) are kept in a list, and done
+//by a SecondVisitor when the traversal ends. The list is in the order that SecondVisitor would do them, and every error of
+//FirstVisitor is found during the traversal, before them, so the errors (and the offsets) are the same as with the two visitors
+//With --parallel the symbol table is frozen after the traversal, and the checks of every method (and of the fields of every
+//class) run as a ForkJoin task, with its own SecondVisitor, and its own Diagnostics that keep the errors without printing them
+//(and its own count of the lookups, which are added to the lookups of the symbol table when the tasks are done).
+//Then the errors of the tasks are added to the Diagnostics of the program in the order of the program, until their limit, so
+//they are printed like the checks one after the other would print them
+public class SinglePassVisitor extends FirstVisitor {
+    private static final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final SecondVisitor checker;
+    private final boolean parallel;
+    private final ArrayList<Check> deferred = new ArrayList<Check>();
+
+    //a check that waits for the end of the traversal: the type of a variable (its VarDeclaration), or the body of a method
+    //(or the statements of main)
+    private static class Check {
+        final Classes owner;
+        final Methods method;
+        final Node body;
+
+        Check(Classes owner, Methods method, Node body){
+            this.owner = owner;
+            this.method = method;
+            this.body = body;
+        }
+
+        void run(SecondVisitor checker, symbolTable symTable) throws Exception {
+            checker.currentClass = owner;
+            checker.currentMethod = method;
+            if(body instanceof MethodDeclaration){
+                checker.checkBody((MethodDeclaration) body, symTable);
+            }else checker.dispatch(body, symTable);
+        }
+    }
+
+    //the checks of one method (or of the fields of one class): deferred.get(from) up to deferred.get(to - 1)
+    private class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        final int from, to;
+        final symbolTable symTable;
+        final Diagnostics errors = new Diagnostics(null, diagnostics.limit, diagnostics.positions);
+        int lookups;                        //the lookups of the symbol table that the checks did (see symbolTable.freeze)
+        Exception failure;                  //an exception that is not an error of the program (null if there was none)
+        boolean overflow;                   //the program was nested too deeply for the stack of the worker thread
+
+        Task(int from, int to, symbolTable symTable){
+            this.from = from;
+            this.to = to;
+            this.symTable = symTable;
+        }
+
+        @Override
+        protected void compute(){
+            SecondVisitor checker = new SecondVisitor(errors);
+            int before = symbolTable.threadLookups();
+            try{
+                for(int i = from; i < to; i++) deferred.get(i).run(checker, symTable);
+            }
+            catch(CheckError ex){
+                //the task found as many errors as the limit (they are in errors)
+            }
+            catch(Exception ex){
+                failure = ex;
+            }
+            catch(StackOverflowError ex){
+                overflow = true;
+            }
+            lookups = symbolTable.threadLookups() - before;
+        }
+    }
+
+    public SinglePassVisitor(){
+        this(System.out);
+    }
+
+    public SinglePassVisitor(PrintStream out){
+        this(new Diagnostics(out), false);
+    }
+
+    public SinglePassVisitor(Diagnostics diagnostics, boolean parallel){
+        super(diagnostics);
+        this.checker = new SecondVisitor(diagnostics);
+        this.parallel = parallel;
+    }
+
+    /**
+     * f0 -> MainClass()
+     * f1 -> ( TypeDeclaration() )*
+     * f2 -> <EOF>
+     */
+    @Override
+    public String visit(Goal n, symbolTable symTable) throws Exception {
+        super.visit(n, symTable);           //the traversal, and the hierarchy index
+
+        if(parallel){
+            checkParallel(symTable);
+        }else{
+            for(Check check: deferred) check.run(checker, symTable);
+        }
+        checker.currentClass = null;
+        checker.currentMethod = null;
+        return null;
+    }
+
+    private void checkParallel(symbolTable symTable) throws Exception {
+        symTable.freeze();
+
+        //the checks of the same method (its variables and its body) are next to each other, and become one task
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        int from = 0;
+        for(int i = 1; i <= deferred.size(); i++){
+            if(i == deferred.size() || deferred.get(i).owner != deferred.get(from).owner || deferred.get(i).method != deferred.get(from).method){
+                tasks.add(new Task(from, i, symTable));
+                from = i;
+            }
+        }
+        try{
+            pool.invoke(new RecursiveAction(){
+                @Override
+                protected void compute(){
+                    invokeAll(tasks);
+                }
+            });
+        }
+        finally{
+            symTable.thaw();            //only this thread uses it again (and the layouts are built after the checks)
+        }
+
+        for(Task task: tasks){
+            symTable.lookups += task.lookups;
+            if(task.overflow){
+                //checked again in this thread, which may have a bigger stack (like the main thread with -Xss)
+                for(int i = task.from; i < task.to; i++) deferred.get(i).run(checker, symTable);
+                continue;
+            }
+            for(Diagnostics.Diagnostic error: task.errors.errors){
+                CheckError thrown = diagnostics.add(error);
+                if(diagnostics.full()) throw thrown;
+            }
+            if(task.failure != null) throw task.failure;
+        }
+    }
+
+    /**
+     * f0 -> "class"
+     * f1 -> Identifier()
+     * ...
+     * f14 -> ( VarDeclaration() )*
+     * f15 -> ( Statement() )*
+     */
+    @Override
+    public String visit(MainClass n, symbolTable symTable) throws Exception {
+        super.visit(n, symTable);
+
+        Classes mainClass = symTable.getClass(n.f1.f0.symbol);
+        deferred.add(new Check(mainClass, mainClass.methodMap.get(Symbols.MAIN), n.f15));
+        return null;
+    }
+
+    @Override
+    protected void methodBody(MethodDeclaration n, symbolTable symTable){
+        deferred.add(new Check(currentClass, currentMethod, n));
+    }
+
+    /**
+     * f0 -> Type()
+     * f1 -> Identifier()
+     * f2 -> ";"
+     */
+    @Override
+    public String visit(VarDeclaration n, symbolTable symTable) throws Exception {
+        String ret = super.visit(n, symTable);
+        deferred.add(new Check(currentClass, currentMethod, n));
+        return ret;
+    }
+}
@@ -0,0 +1,176 @@
+import syntaxtree.Node;
+import syntaxtree.NodeListInterface;
+import syntaxtree.NodeToken;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+//Stats keeps what --stats prints for one file: the wall time, cpu time and bytes allocated of every phase (measured
+//by the ThreadMXBean of the thread that checks the file), and a few counts of the program
+//The counts are taken after the phases, so counting the nodes of the tree doesn't make the phases look slower
+public class Stats {
+    static final String[] PHASES = {"parse", "first", "second", "offsets"};
+    static final int PARSE = 0, FIRST = 1, SECOND = 2, OFFSETS = 3;
+
+    static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    String file;
+    long[] wall = new long[PHASES.length];      //nanoseconds
+    long[] cpu = new long[PHASES.length];       //nanoseconds (-1 if the jvm can't measure it)
+    long[] bytes = new long[PHASES.length];     //bytes allocated (-1 if the jvm can't measure it)
+    boolean[] ran = new boolean[PHASES.length];
+
+    long tokens, nodes, classes, methods, lookups;
+
+    private int phase = -1;                     //the phase that is being measured
+    private long startWall, startCpu, startBytes;
+
+    public Stats(String file){
+        this.file = file;
+    }
+
+    //starts measuring a phase (and ends the one before it)
+    void begin(int phase){
+        end();
+        this.phase = phase;
+        startBytes = allocated();
+        startCpu = cpuTime();
+        startWall = System.nanoTime();
+    }
+
+    //ends the phase that is being measured, if there is one (a phase that throws is measured until the exception)
+    void end(){
+        if(phase < 0) return;
+        long now = System.nanoTime();
+        long nowCpu = cpuTime();
+        long nowBytes = allocated();
+
+        wall[phase] = now - startWall;
+        cpu[phase] = startCpu < 0 ? -1 : nowCpu - startCpu;
+        bytes[phase] = startBytes < 0 ? -1 : nowBytes - startBytes;
+        ran[phase] = true;
+        phase = -1;
+    }
+
+    private static long cpuTime(){
+        if(!threads.isCurrentThreadCpuTimeSupported()) return -1;
+        return threads.getCurrentThreadCpuTime();
+    }
+
+    private static long allocated(){
+        if(!threads.isThreadAllocatedMemorySupported()) return -1;
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    //counts the classes, the methods and the lookups of the symbol table
+    void count(symbolTable symTable){
+        lookups += symTable.lookups;
+        for(Classes tmpClass: symTable.classMap.values()){
+            classes++;
+            lookups += tmpClass.lookups;
+            for(Methods tmpMethod: tmpClass.methodMap.values()){
+                methods++;
+                lookups += tmpMethod.lookups;
+            }
+        }
+    }
+
+    //counts the nodes and the tokens of the tree
+    //The tree has a class for every production, so it is walked by its fields instead of with a visitor
+    void count(Node root) throws IllegalAccessException {
+        ArrayList<Node> stack = new ArrayList<Node>();
+        stack.add(root);
+        while(!stack.isEmpty()){
+            Node node = stack.remove(stack.size() - 1);
+            nodes++;
+            if(node instanceof NodeToken){
+                tokens++;
+            }else if(node instanceof NodeListInterface){
+                NodeListInterface list = (NodeListInterface) node;
+                for(int i = list.size() - 1; i >= 0; i--) stack.add(list.elementAt(i));
+            }else{
+                for(Field field: nodeFields(node.getClass())){
+                    Node child = (Node) field.get(node);
+                    if(child != null) stack.add(child);
+                }
+            }
+        }
+    }
+
+    private static final HashMap<Class<?>, Field[]> fields = new HashMap<Class<?>, Field[]>();
+
+    //the public fields of a node class that are nodes (f0, f1, ... of the productions, node of NodeOptional, choice of NodeChoice)
+    private static Field[] nodeFields(Class<?> type){
+        synchronized(fields){
+            Field[] result = fields.get(type);
+            if(result == null){
+                List<Field> list = new ArrayList<Field>();
+                for(Field field: type.getFields()){
+                    if(Node.class.isAssignableFrom(field.getType())) list.add(field);
+                }
+                result = list.toArray(new Field[0]);
+                fields.put(type, result);
+            }
+            return result;
+        }
+    }
+
+    //prints the stats as a table
+    void print(PrintStream err){
+        err.printf("stats for %s\n", file);
+        err.printf("  %-10s %12s %12s %14s\n", "phase", "wall ms", "cpu ms", "allocated KB");
+        long totalWall = 0, totalCpu = 0, totalBytes = 0;
+        for(int i = 0; i < PHASES.length; i++){
+            if(!ran[i]) continue;
+            err.printf("  %-10s %12.3f %12s %14s\n", PHASES[i], wall[i] / 1e6, millis(cpu[i]), kilobytes(bytes[i]));
+            totalWall += wall[i];
+            totalCpu = totalCpu < 0 || cpu[i] < 0 ? -1 : totalCpu + cpu[i];
+            totalBytes = totalBytes < 0 || bytes[i] < 0 ? -1 : totalBytes + bytes[i];
+        }
+        err.printf("  %-10s %12.3f %12s %14s\n", "total", totalWall / 1e6, millis(totalCpu), kilobytes(totalBytes));
+        err.printf("  tokens %d, nodes %d, classes %d, methods %d, symbol lookups %d\n", tokens, nodes, classes, methods, lookups);
+    }
+
+    private static String millis(long nanos){
+        return nanos < 0 ? "-" : String.format("%.3f", nanos / 1e6);
+    }
+
+    private static String kilobytes(long bytes){
+        return bytes < 0 ? "-" : String.format("%.1f", bytes / 1024.0);
+    }
+
+    //prints the stats as one line of json (the phases that didn't run are left out, the values that can't be measured are -1)
+    void printJson(PrintStream err){
+        StringBuilder json = new StringBuilder();
+        json.append("{\"file\":\"").append(escape(file)).append("\",\"phases\":{");
+        boolean first = true;
+        for(int i = 0; i < PHASES.length; i++){
+            if(!ran[i]) continue;
+            if(!first) json.append(',');
+            first = false;
+            json.append('"').append(PHASES[i]).append("\":{\"wallNanos\":").append(wall[i])
+                    .append(",\"cpuNanos\":").append(cpu[i]).append(",\"allocatedBytes\":").append(bytes[i]).append('}');
+        }
+        json.append("},\"tokens\":").append(tokens).append(",\"nodes\":").append(nodes)
+                .append(",\"classes\":").append(classes).append(",\"methods\":").append(methods)
+                .append(",\"lookups\":").append(lookups).append('}');
+        err.println(json);
+    }
+
+    private static String escape(String text){
+        StringBuilder result = new StringBuilder();
+        for(int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+            if(c == '"' || c == '\\'){
+                result.append('\\').append(c);
+            }else if(c < 0x20){
+                result.append(String.format("\\u%04x", (int) c));
+            }else result.append(c);
+        }
+        return result.toString();
+    }
+}
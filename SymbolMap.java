@@ -0,0 +1,111 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+//SymbolMap maps the symbols of names (see Symbols) to the classes, methods and variables of the symbol table
+//The keys and the values are kept in two arrays in the order they were put (so values() is in the order of the declarations,
+//like the LinkedHashMaps it replaces), and a table of int[] indexes them by the hash of the symbol, with linear probing
+//Every place of the table is two ints, the symbol and the index of its entry, so a lookup is a multiplication and the reads of
+//one array (most often a single place), without boxing the symbol or hashing a string
+//An empty map has no arrays of its own (most methods have few variables, and many classes have no fields)
+public class SymbolMap<V> {
+    private static final int[] NO_KEYS = new int[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int[] table;            //pairs of a symbol and the index of its entry plus one (0 is an empty place)
+    private int shift;              //the hash of a symbol is its top bits after the multiplication (32 - shift = log2 of the places)
+
+    public SymbolMap(){
+        keys = NO_KEYS;
+        values = NO_VALUES;
+        table = NO_KEYS;
+    }
+
+    //a copy of the map, that can change without changing the other one
+    public SymbolMap(SymbolMap<V> other){
+        keys = other.size == 0 ? NO_KEYS : Arrays.copyOf(other.keys, other.keys.length);
+        values = other.size == 0 ? NO_VALUES : Arrays.copyOf(other.values, other.values.length);
+        size = other.size;
+        table = other.size == 0 ? NO_KEYS : Arrays.copyOf(other.table, other.table.length);
+        shift = other.shift;
+    }
+
+    private int hash(int symbol){
+        return (symbol * 0x9e3779b9) >>> shift;
+    }
+
+    //the index of the entry of the symbol, or -1
+    private int find(int symbol){
+        if(size == 0) return -1;
+        int mask = table.length - 1;
+        for(int i = hash(symbol) << 1; table[i + 1] != 0; i = (i + 2) & mask){
+            if(table[i] == symbol) return table[i + 1] - 1;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int symbol){
+        int entry = find(symbol);
+        return entry < 0 ? null : (V) values[entry];
+    }
+
+    public boolean containsKey(int symbol){
+        return find(symbol) >= 0;
+    }
+
+    //puts the value of the symbol, returns the value it replaced (or null if the symbol is new: it goes after the others)
+    @SuppressWarnings("unchecked")
+    public V put(int symbol, V value){
+        int entry = find(symbol);
+        if(entry >= 0){
+            V old = (V) values[entry];
+            values[entry] = value;
+            return old;
+        }
+
+        if(size == keys.length){
+            keys = Arrays.copyOf(keys, size == 0 ? 4 : 2 * size);
+            values = Arrays.copyOf(values, size == 0 ? 4 : 2 * size);
+        }
+        keys[size] = symbol;
+        values[size] = value;
+        size++;
+        if(size > table.length / 4){
+            table = new int[table.length < 16 ? 16 : 2 * table.length];    //at most half full, so the probes stay short
+            shift = Integer.numberOfLeadingZeros(table.length / 2) + 1;
+            for(int i = 0; i < size; i++) insert(i);
+        }else insert(size - 1);
+        return null;
+    }
+
+    private void insert(int entry){
+        int mask = table.length - 1;
+        int i = hash(keys[entry]) << 1;
+        while(table[i + 1] != 0) i = (i + 2) & mask;
+        table[i] = keys[entry];
+        table[i + 1] = entry + 1;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    //the values in the order they were put
+    public List<V> values(){
+        return new AbstractList<V>(){
+            @SuppressWarnings("unchecked")
+            public V get(int i){
+                if(i >= size) throw new IndexOutOfBoundsException(i + " >= " + size);
+                return (V) values[i];
+            }
+
+            public int size(){
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Symbols gives every identifier a number (its symbol): the lexer interns the name of every IDENTIFIER token, and the token (and
+//its NodeToken) keeps the symbol, so the symbol table finds the classes, methods and variables by their symbol (SymbolMap),
+//and never hashes or compares their names again
+//The same name gets the same symbol in every file that is lexed with the same Symbols. A batch run makes one for all its files
+//(Options.symbols, shared by the workers of --jobs), so a name that appears in many files is kept only once. The server makes
+//a new one for every request (see CompileServer), since a Symbols only grows, and the server runs for a long time
+//The lexers also replace the image of every identifier token with the name that Symbols keeps, so the tokens (and the tree)
+//of a name share one String, and the String that the lexer made for it can be collected
+//A name is looked up without locks (most names have been seen before); only a new name takes the lock
+public class Symbols {
+    public static final int MAIN = 0;           //"main" is a keyword, not an identifier, so the main method gets this symbol
+
+    private final ConcurrentHashMap<String, Integer> symbols = new ConcurrentHashMap<String, Integer>();
+    private volatile String[] names = new String[256];     //volatile, so name can read it without the lock
+    private int count;
+
+    public Symbols(){
+        intern("main");
+    }
+
+    //returns the symbol of the name, giving it the next one the first time
+    public int intern(String name){
+        Integer symbol = symbols.get(name);
+        if(symbol != null) return symbol;
+        return add(name);
+    }
+
+    private synchronized int add(String name){
+        Integer symbol = symbols.get(name);         //another thread may have added it in the meantime
+        if(symbol != null) return symbol;
+
+        String[] names = this.names;
+        if(count == names.length) names = Arrays.copyOf(names, 2 * count);
+        names[count] = name;
+        this.names = names;
+        symbols.put(name, count);
+        return count++;
+    }
+
+    //the name of a symbol (the one String that the tokens of the name share)
+    //A symbol comes from intern, which saw it in symbols after add had put its name in names, so names has it
+    public String name(int symbol){
+        return names[symbol];
+    }
+
+    //how many names have a symbol
+    public synchronized int size(){
+        return count;
+    }
+}
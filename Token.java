@@ -34,6 +34,12 @@ public class Token implements java.io.Serializable {
    */
   public String image;
 
+  /** The symbol of the name of an identifier (see Symbols), -1 for the other tokens. */
+  public int symbol = -1;
+
+  /** The matching ")" or "]" of a "(" or "[" that the parser has skipped (see MiniJavaParser.closer), else null. */
+  public Token closer;
+
   /**
    * A reference to the next regular (non-special) token from the input
    * stream.  If this is the last token from the input stream, or if the
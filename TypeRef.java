@@ -0,0 +1,50 @@
+//TypeRef is the type of a variable, of a method, or of an expression (it is not called Type, because syntaxtree.Type is the node of the grammar)
+//There is only one TypeRef for every type, so two types are the same only if they are the same object (== instead of equals):
+//int, boolean and int[] are the constants below, and symbolTable keeps one ClassTypeRef for every class name
+public class TypeRef {
+    public static final TypeRef INT = new TypeRef("int");
+    public static final TypeRef BOOLEAN = new TypeRef("boolean");
+    public static final ArrayTypeRef INT_ARRAY = new ArrayTypeRef(INT);
+    public static final TypeRef VOID = new TypeRef("void");            //only the return type of main
+
+    public final String name;
+
+    TypeRef(String name){
+        this.name = name;
+    }
+
+    //the class of the type, or null if it is not a declared class
+    public Classes declaration(){
+        return null;
+    }
+
+    @Override
+    public String toString(){
+        return name;
+    }
+}
+
+//the type of an array (MiniJava only has int[])
+class ArrayTypeRef extends TypeRef {
+    public final TypeRef element;
+
+    ArrayTypeRef(TypeRef element){
+        super(element.name + "[]");
+        this.element = element;
+    }
+}
+
+//the type of a class. It is made the first time its name is used, so it can be the type of a variable that is declared
+//before its class: declaration is filled when the class is declared (and stays null if the class is never declared)
+class ClassTypeRef extends TypeRef {
+    Classes declaration;
+
+    ClassTypeRef(String name){
+        super(name);
+    }
+
+    @Override
+    public Classes declaration(){
+        return declaration;
+    }
+}
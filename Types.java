@@ -1,85 +1,205 @@
 import java.util.*;
 
 class Classes {
+    int symbol;                                     //the symbol of the name of the class (see Symbols)
     String className;
+    ClassTypeRef type;                              //the type of the class (symbolTable sets it, when it adds the class)
     Classes parentClass;                            //is null if the class doesn't have a parent
-    LinkedHashMap<String, String> variableMap;      //contains each variable that has been declared inside of the class (but not inside of a method)
-    LinkedHashMap<String, Methods> methodMap;       //contains each method that has been declared inside of the class
-
-    public Classes(String className, Classes parentClass){
+    SymbolMap<Variables> variableMap;               //contains each variable that has been declared inside of the class (but not inside of a method)
+    SymbolMap<Variables> fieldTable;                //contains each field of the class and of its parents (the field of the class hides a field of a parent with the same name), see buildFieldTable
+    ArrayList<Variables> fields;                    //the fields of the parents and of the class, in the order of their slots
+    SymbolMap<Methods> methodMap;                   //contains each method that has been declared inside of the class
+    SymbolMap<Methods> methodTable;                 //contains each method of the class and of its parents (the last one that overrides it), see buildMethodTable
+    ArrayList<Methods> vtable;                      //the methods of the class and of its parents, in the order of their slots
+    int lookups;                                    //how many methods and variables were looked up in the class (for --stats)
+    boolean frozen;                                 //the symbol table is frozen (see symbolTable.freeze)
+    int pre, post;                                  //the classes that extend this one (even indirectly) are numbered from pre to post (see symbolTable.buildHierarchy)
+
+    //the maps of the class (and of its methods) are keyed by the symbols of the names, the names are kept for the messages
+    public Classes(int symbol, String className, Classes parentClass){
+        this.symbol = symbol;
         this.className = className;
         this.parentClass = parentClass;
-        this.variableMap = new LinkedHashMap<String, String>();
-        this.methodMap = new LinkedHashMap<String, Methods>();
+        this.variableMap = new SymbolMap<Variables>();
+        this.methodMap = new SymbolMap<Methods>();
     }
 
-    public String addMethod(String methodName, String returns){
-        if(methodMap.containsKey(methodName))
+    public String addMethod(int symbol, String methodName, TypeRef returns){
+        symbolTable.checkNotFrozen(frozen);
+        if(methodMap.containsKey(symbol))
             return null;
 
-        Methods insertedMethod = new Methods(methodName, returns);
-        methodMap.put(methodName, insertedMethod);
+        Methods insertedMethod = new Methods(symbol, methodName, returns);
+        methodMap.put(symbol, insertedMethod);
         return methodName;
     }
 
-    public Methods getMethod(String methodName){
-        if(!methodMap.containsKey(methodName)){
-            return null;
-        }else return methodMap.get(methodName);
+    public Methods getMethod(int symbol){
+        countLookup();
+        return methodMap.get(symbol);
+    }
+
+    //returns the method that an object of the class runs (declared in the class or in one of its parents), or null
+    //It can only be used after buildMethodTable, and for the parent classes while the class itself is being declared
+    public Methods lookupMethod(int symbol){
+        countLookup();
+        if(methodTable == null) return null;        //only a class that extends itself has a parent that is never finished
+        return methodTable.get(symbol);
+    }
+
+    //makes the method table and the vtable of the class, when all of its methods have been declared
+    //They start as copies of the tables of the parent (a parent is always declared before the classes that extend it, so its
+    //tables are ready): a method that overrides takes the slot of the method it overrides, and a new method gets the next slot
+    public void buildMethodTable(){
+        symbolTable.checkNotFrozen(frozen);
+        if(parentClass == null || parentClass.methodTable == null){
+            methodTable = new SymbolMap<Methods>();
+            vtable = new ArrayList<Methods>();
+        }else{
+            methodTable = new SymbolMap<Methods>(parentClass.methodTable);
+            vtable = new ArrayList<Methods>(parentClass.vtable);
+        }
+
+        for(Methods method: methodMap.values()){
+            method.owner = this;
+            method.overrides = methodTable.get(method.symbol);
+            methodTable.put(method.symbol, method);
+
+            if(method.returns == TypeRef.VOID){
+                method.slot = -1;                                   //main is static, so it doesn't have a slot
+            }else if(method.overrides != null){
+                method.slot = method.overrides.slot;                //(a method that overrides main doesn't have one either)
+                if(method.slot >= 0) vtable.set(method.slot, method);
+            }else{
+                method.slot = vtable.size();
+                vtable.add(method);
+            }
+        }
     }
 
-    //a variable consists of its name, and its type (both are strings)
-    public String addVariable(String variableName, String variableType){
-        if(variableMap.containsKey(variableName))
+    //a variable consists of its name, and its type
+    public String addVariable(int symbol, String variableName, TypeRef variableType){
+        symbolTable.checkNotFrozen(frozen);
+        if(variableMap.containsKey(symbol))
             return null;
 
-        variableMap.put(variableName, variableType);
+        Variables insertedVariable = new Variables(symbol, variableName, variableType);
+        insertedVariable.owner = this;
+        variableMap.put(symbol, insertedVariable);
         return variableName;
     }
 
+    //returns a field of the class or of one of its parents, or null (only after buildFieldTable)
+    public Variables lookupField(int symbol){
+        countLookup();
+        if(fieldTable == null) return null;         //only a class that extends itself has a parent that is never finished
+        return fieldTable.get(symbol);
+    }
+
+    //makes the field table of the class, when all of its fields have been declared, like buildMethodTable does for the methods
+    //Every field gets the next slot after the fields of the parents, even if it hides one of them (an object has both)
+    public void buildFieldTable(){
+        symbolTable.checkNotFrozen(frozen);
+        if(parentClass == null || parentClass.fieldTable == null){
+            fieldTable = new SymbolMap<Variables>();
+            fields = new ArrayList<Variables>();
+        }else{
+            fieldTable = new SymbolMap<Variables>(parentClass.fieldTable);
+            fields = new ArrayList<Variables>(parentClass.fields);
+        }
+
+        for(Variables field: variableMap.values()){
+            field.slot = fields.size();
+            fields.add(field);
+            fieldTable.put(field.symbol, field);
+        }
+    }
 
+    private void countLookup(){
+        if(frozen) symbolTable.countLookup();
+        else lookups++;
+    }
 }
 
 class Methods {
+    int symbol;
     String methodName;
-    String returns;
-    LinkedHashMap<String, String> variableMap;          //contains each variable declared inside the method
-    LinkedHashMap<String, String> parameterMap;         //contains each variable declared inside the method's parameters (like public int foo(int j, boolean k))
-    ArrayList<String> parameterTypeMap;                 //contains every type from the method's parameters (for above example it would be [int, boolean])
-
-    public Methods(String methodName, String returns){
+    TypeRef returns;
+    SymbolMap<Variables> scope;                         //contains each parameter of the method (like public int foo(int j, boolean k)) and each variable declared inside it
+    TypeRef[] parameterTypes;                           //contains every type from the method's parameters (for above example it would be [int, boolean])
+    int parameterCount;                                 //how many of the first variables of the scope are parameters
+    Classes owner;                                      //the class that declares the method
+    Methods overrides;                                  //the method of a parent class that this one overrides (null if it doesn't override)
+    int slot;                                           //the index of the method in the vtable of its class (and of the classes that extend it)
+    int lookups;                                        //how many variables were looked up in the method (for --stats)
+    boolean frozen;                                     //the symbol table is frozen (see symbolTable.freeze)
+
+    public Methods(int symbol, String methodName, TypeRef returns){
+        this.symbol = symbol;
         this.methodName = methodName;
         this.returns = returns;
-        this.parameterMap = new LinkedHashMap<String, String>();
-        this.variableMap = new LinkedHashMap<String, String>();
-        this.parameterTypeMap = new ArrayList<String>();
+        this.scope = new SymbolMap<Variables>();
+        this.parameterTypes = NO_PARAMETERS;
     }
 
-    public String addVariable(String variableName, String variableType){
+    static final TypeRef[] NO_PARAMETERS = new TypeRef[0];
+
+    //the parameters are all added before the variables, so they get the first slots
+    public String addVariable(int symbol, String variableName, TypeRef variableType){
+        symbolTable.checkNotFrozen(frozen);
         //checks if variable is declared either in method's parameters or method's variables
-        if(variableMap.containsKey(variableName) || parameterMap.containsKey(variableName))
+        if(scope.containsKey(symbol))
             return null;
 
-        variableMap.put(variableName, variableType);
+        Variables insertedVariable = new Variables(symbol, variableName, variableType);
+        insertedVariable.slot = scope.size();
+        scope.put(symbol, insertedVariable);
         return variableName;
     }
 
-    public String addParameter(String parameterName, String parameterType){
-        if(parameterMap.containsKey(parameterName))
+    public String addParameter(int symbol, String parameterName, TypeRef parameterType){
+        symbolTable.checkNotFrozen(frozen);
+        if(scope.containsKey(symbol))
             return null;
 
-        parameterMap.put(parameterName, parameterType);
+        Variables insertedParameter = new Variables(symbol, parameterName, parameterType);
+        insertedParameter.slot = scope.size();
+        scope.put(symbol, insertedParameter);
+        parameterCount++;
         return parameterName;
     }
 
-    //returns a method's specific variable or parameter
-    public String getVarOrPar(String variableName){
-        if(variableMap.containsKey(variableName)){
-            return variableMap.get(variableName);     //returns variable's type
+    //makes the array of the types of the parameters, when all of them have been added (so a call checks its arguments against it)
+    public void buildParameters(){
+        symbolTable.checkNotFrozen(frozen);
+        parameterTypes = new TypeRef[parameterCount];
+        int i = 0;
+        for(Variables parameter: scope.values()){
+            if(i == parameterCount) break;
+            parameterTypes[i++] = parameter.type;
         }
-        if(parameterMap.containsKey(variableName)){
-            return parameterMap.get(variableName);     //returns variable's type
-        }
-        return null;
+    }
+
+    //returns a method's specific variable or parameter, or null
+    public Variables getVarOrPar(int symbol){
+        if(frozen) symbolTable.countLookup();
+        else lookups++;
+        return scope.get(symbol);
+    }
+}
+
+//a variable: a field of a class, or a parameter or a variable of a method
+class Variables {
+    int symbol;
+    String variableName;
+    TypeRef type;
+    Classes owner;              //the class of a field (null for a parameter or a variable of a method)
+    int slot;                   //the index of a field in the fields of its class, or of a parameter or variable in the scope of its method
+    int offset;                 //the offset of a field in an object of its class (set by symbolTable.buildLayouts)
+
+    public Variables(int symbol, String variableName, TypeRef type){
+        this.symbol = symbol;
+        this.variableName = variableName;
+        this.type = type;
     }
 }
@@ -0,0 +1,119 @@
+import syntaxtree.*;
+import visitor.DepthFirstVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//AstBench compares the tree of the parser with the flat tree (Ast) that is made from it, on programs of ProgramGenerator
+//with more and more classes:
+//  memory      the heap that the trees of a few copies of the program keep (measured after a GC, with the source and every
+//              other tree dropped), in bytes per line of the source
+//  traversal   the time of a depth first traversal that counts the identifiers, with a visitor.DepthFirstVisitor over the tree
+//              of the parser and with an AstDepthFirst over the flat tree
+//  convert     the time of Ast.of
+//Both traversals must count the same identifiers, or the bench stops
+//
+//usage: java -cp .:bench AstBench [--time <ms>]
+public class AstBench {
+    static final int[] CLASSES = {10, 100, 1000};
+    static final int COPIES = 20;             //the trees that are kept for the memory, so that the noise of the heap is smaller
+
+    static class JtbCounter extends DepthFirstVisitor {
+        int identifiers;
+
+        @Override
+        public void visit(Identifier n) throws Exception {
+            identifiers++;
+            super.visit(n);
+        }
+    }
+
+    static class AstCounter extends AstDepthFirst<Void, Void> {
+        int identifiers;
+
+        AstCounter(Ast ast){
+            super(ast);
+        }
+
+        @Override
+        public Void visitIdentifier(int node, Void argu) throws Exception {
+            identifiers++;
+            return null;
+        }
+    }
+
+    static long used(){
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 4; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    //the bytes that COPIES trees of the program keep
+    static long retained(String source, boolean flat) throws Exception {
+        List<Object> trees = new ArrayList<Object>();
+        long before = used();
+        for(int i = 0; i < COPIES; i++){
+            Goal root = PhaseBench.parse(source);
+            trees.add(flat ? Ast.of(root) : root);
+        }
+        long after = used();
+        if(trees.size() != COPIES) throw new Error();
+        return (after - before) / COPIES;
+    }
+
+    static int countJtb(Goal root) throws Exception {
+        JtbCounter counter = new JtbCounter();
+        root.accept(counter);
+        return counter.identifiers;
+    }
+
+    static int countAst(Ast ast) throws Exception {
+        AstCounter counter = new AstCounter(ast);
+        counter.visit(0, null);
+        return counter.identifiers;
+    }
+
+    //the nanoseconds of one run of the operation (0 jtb, 1 ast, 2 convert), timed for about millis
+    static double time(int operation, Goal root, Ast ast, long millis) throws Exception {
+        long end = System.nanoTime() + millis * 1000000L, runs = 0, start = System.nanoTime(), sink = 0;
+        while(System.nanoTime() < end){
+            if(operation == 0){
+                sink += countJtb(root);
+            }else if(operation == 1){
+                sink += countAst(ast);
+            }else sink += Ast.of(root).size();
+            runs++;
+        }
+        if(sink == 42) System.out.print("");
+        return (System.nanoTime() - start) / (double) runs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long millis = 1000;
+        for(int i = 0; i < args.length; i++){
+            if(args[i].equals("--time") && i + 1 < args.length) millis = Long.parseLong(args[++i]);
+        }
+
+        System.out.println("classes\tlines\tnodes\ttokens\tjtb B/line\tast B/line\tjtb us\tast us\tconvert us");
+        for(int classes: CLASSES){
+            ProgramGenerator generator = new ProgramGenerator();
+            generator.classes = classes;
+            String source = generator.generate();
+            int lines = source.split("\n").length;
+
+            Goal root = PhaseBench.parse(source);
+            Ast ast = Ast.of(root);
+            if(countJtb(root) != countAst(ast)) throw new Error("the traversals count different identifiers: " + classes);
+
+            long jtbBytes = retained(source, false), astBytes = retained(source, true);
+            double jtb = 0, flat = 0, convert = 0;
+            for(int warmup = 0; warmup < 2; warmup++){
+                jtb = time(0, root, ast, millis);
+                flat = time(1, root, ast, millis);
+                convert = time(2, root, ast, millis);
+            }
+            System.out.printf("%d\t%d\t%d\t%d\t%d\t%d\t%.1f\t%.1f\t%.1f\n", classes, lines, ast.size(), ast.tokens(),
+                    jtbBytes / lines, astBytes / lines, jtb / 1000, flat / 1000, convert / 1000);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import syntaxtree.Goal;
+import visitor.GJSwitchDepthFirst;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//DispatchBench compares the two ways the visitors can visit the children of a node (visitor.GJSwitchDepthFirst.dispatch):
+//  switch      a switch on the kind of the node (syntaxtree.NodeKind), with one visit call in every case
+//  accept      the accept method of the node, which calls the visit method of its class (the call can go to any node class)
+//Only one way runs in a JVM (GJSwitchDepthFirst.USE_SWITCH is final, so that the JIT compiles dispatch for that way only),
+//so run it once for each:
+//  java -cp .:bench DispatchBench
+//  java -Dvisitor.dispatch=accept -cp .:bench DispatchBench
+//The phases are the ones of PhaseBench that run visitors (walk is a GJSwitchDepthFirst that only visits the tree), on
+//programs of ProgramGenerator with more and more classes. For every phase it prints the time of one operation (mean and
+//deviation of the measured iterations)
+//
+//usage: java [-Dvisitor.dispatch=accept] -cp .:bench DispatchBench [--iterations <n>] [--time <ms>]
+public class DispatchBench {
+    static final String[] PHASES = {"walk", "first", "second", "twopass"};
+    static final int[] CLASSES = {10, 100, 1000};
+
+    static final GJSwitchDepthFirst<Void, Void> walker = new GJSwitchDepthFirst<Void, Void>();
+
+    //one iteration: runs the phase until the time is over, returns the nanoseconds of one operation
+    static double iteration(String phase, PhaseBench.Program program, long millis) throws Exception {
+        if(!phase.equals("walk")){
+            long[] result = PhaseBench.iteration(phase, List.of(program), millis);
+            return result[1] / (double) result[0];
+        }
+        long start = System.nanoTime(), end = start + millis * 1000000, ops = 0, now;
+        do{
+            program.root.accept(walker, null);
+            ops++;
+        }while((now = System.nanoTime()) < end);
+        return (now - start) / (double) ops;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = 5;
+        long millis = 1000;
+        for(int i = 0; i < args.length; i++){
+            if(args[i].equals("--iterations") && i + 1 < args.length){
+                iterations = Integer.parseInt(args[++i]);
+            }else if(args[i].equals("--time") && i + 1 < args.length){
+                millis = Long.parseLong(args[++i]);
+            }
+        }
+
+        List<PhaseBench.Program> programs = new ArrayList<PhaseBench.Program>();
+        for(int classes: CLASSES){
+            ProgramGenerator generator = new ProgramGenerator();
+            generator.classes = classes;
+            PhaseBench.Program program = PhaseBench.load(generator.generate());
+            if(program == null) throw new Error("the generated program has an error: " + classes);
+            programs.add(program);
+        }
+
+        System.out.printf("dispatch: %s\n", GJSwitchDepthFirst.USE_SWITCH ? "switch" : "accept");
+        System.out.printf("%-8s %-8s %14s %12s\n", "classes", "phase", "us/op", "error");
+        for(int c = 0; c < CLASSES.length; c++){
+            for(String phase: PHASES){
+                for(int i = 0; i < iterations; i++) iteration(phase, programs.get(c), millis);        //warmup
+
+                double[] times = new double[iterations];
+                double mean = 0, deviation = 0;
+                for(int i = 0; i < iterations; i++){
+                    times[i] = iteration(phase, programs.get(c), millis);
+                    mean += times[i] / iterations;
+                }
+                for(double t: times) deviation += (t - mean) * (t - mean) / iterations;
+                System.out.printf("%-8d %-8s %14.1f %12.1f\n", CLASSES[c], phase, mean / 1000, Math.sqrt(deviation) / 1000);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import java.io.CharArrayReader;
+import java.io.File;
+import java.nio.file.Files;
+
+//LexBench times the generated MiniJavaParserTokenManager (reading from a Reader, and from a JavaCharStream in compact
+//position mode) and the FastTokenManager on the same programs, by reading all their tokens (without parsing)
+//
+//usage: java -cp .:bench LexBench [file or directory ...]        (default: tests)
+public class LexBench {
+
+    static void collect(File file, StringBuilder program){
+        if(file.isDirectory()){
+            File[] children = file.listFiles();
+            java.util.Arrays.sort(children);
+            for(File child: children) collect(child, program);
+        }else if(file.getName().endsWith(".java")){
+            try{
+                program.append(new String(Files.readAllBytes(file.toPath()))).append('\n');
+            }
+            catch(java.io.IOException ex){
+                System.err.println(ex.getMessage());
+            }
+        }
+    }
+
+    //returns the number of tokens
+    static int lexGenerated(char[] chars){
+        MiniJavaParserTokenManager lexer = new MiniJavaParserTokenManager(new JavaCharStream(new CharArrayReader(chars)));
+        int count = 0;
+        while(lexer.getNextToken().kind != MiniJavaParserConstants.EOF) count++;
+        return count;
+    }
+
+    static int lexCompact(char[] chars){
+        MiniJavaParserTokenManager lexer = new MiniJavaParserTokenManager(new JavaCharStream(chars, chars.length));
+        int count = 0;
+        while(lexer.getNextToken().kind != MiniJavaParserConstants.EOF) count++;
+        return count;
+    }
+
+    static int lexFast(char[] chars){
+        FastTokenManager lexer = new FastTokenManager(chars, chars.length);
+        int count = 0;
+        while(lexer.getNextToken().kind != MiniJavaParserConstants.EOF) count++;
+        return count;
+    }
+
+    //returns the time of one run in nanoseconds (the best of a few rounds)
+    static double time(Runnable run, int repeats){
+        double best = Double.MAX_VALUE;
+        for(int round = 0; round < 5; round++){
+            long start = System.nanoTime();
+            for(int i = 0; i < repeats; i++) run.run();
+            best = Math.min(best, (System.nanoTime() - start) / (double) repeats);
+        }
+        return best;
+    }
+
+    public static void main(String[] args) throws Exception {
+        StringBuilder text = new StringBuilder();
+        if(args.length == 0) args = new String[]{"tests"};
+        for(String arg: args) collect(new File(arg), text);
+
+        //the files are lexed as one text (it doesn't have to parse), the programs with unicode escapes are left out
+        final char[] chars = text.toString().toCharArray();
+        if(!FastTokenManager.canLex(chars, chars.length)){
+            System.err.println("the input contains a backslash, which only the generated lexer handles");
+            System.exit(1);
+        }
+
+        int tokens = lexGenerated(chars);
+        if(lexCompact(chars) != tokens || lexFast(chars) != tokens) throw new Error("the lexers don't give the same number of tokens");
+
+        int repeats = Math.max(10, 20000000 / Math.max(1, chars.length));
+        time(() -> lexGenerated(chars), repeats);           //warmup
+        time(() -> lexCompact(chars), repeats);
+        time(() -> lexFast(chars), repeats);
+
+        double generated = time(() -> lexGenerated(chars), repeats);
+        double compact = time(() -> lexCompact(chars), repeats);
+        double fast = time(() -> lexFast(chars), repeats);
+
+        System.out.printf("%d chars, %d tokens\n", chars.length, tokens);
+        System.out.printf("%-10s %14s %14s\n", "lexer", "us/run", "ns/token");
+        System.out.printf("%-10s %14.1f %14.1f\n", "generated", generated / 1000, generated / tokens);
+        System.out.printf("%-10s %14.1f %14.1f\n", "compact", compact / 1000, compact / tokens);
+        System.out.printf("%-10s %14.1f %14.1f\n", "fast", fast / 1000, fast / tokens);
+    }
+}
@@ -0,0 +1,80 @@
+import java.io.StringReader;
+
+//ParseBench times MiniJavaParser.Goal on expressions nested deeper and deeper, for a few kinds of nesting
+//If the parsing is linear, the time per level (the last column) stays about the same as the depth doubles
+//
+//usage: java -cp .:bench ParseBench [maxDepth]
+public class ParseBench {
+    static final String[] KINDS = {"call", "bracket", "chain", "arguments"};
+
+    //builds an expression with the given kind of nesting, depth levels deep
+    static String expression(String kind, int depth){
+        StringBuilder expr = new StringBuilder("x");
+        for(int i = 0; i < depth; i++){
+            String inner = expr.toString();
+            expr.setLength(0);
+            switch(kind){
+                case "call":            //x.f(x.f(x.f(x)))
+                    expr.append("x.f(").append(inner).append(")");
+                    break;
+                case "bracket":         //(((x)))
+                    expr.append("(").append(inner).append(")");
+                    break;
+                case "chain":           //(((x.f()).f()).f())
+                    expr.append("(").append(inner).append(".f())");
+                    break;
+                default:                //x.f((x.f((x) + 1)) + 1, y)
+                    expr.append("x.f((").append(inner).append(") + 1, y)");
+            }
+        }
+        return expr.toString();
+    }
+
+    static String program(String expression){
+        return "class Main { public static void main(String[] a){ System.out.println(" + expression + "); } }";
+    }
+
+    //returns the average time of one parse in nanoseconds
+    static double time(String source, int repeats) throws ParseException {
+        MiniJavaParser parser = new MiniJavaParser(new StringReader(source));
+        long start = System.nanoTime();
+        for(int i = 0; i < repeats; i++){
+            parser.ReInit(new StringReader(source));
+            parser.Goal();
+        }
+        return (System.nanoTime() - start) / (double) repeats;
+    }
+
+    static void run(int maxDepth) throws ParseException {
+        for(String kind: KINDS){
+            time(program(expression(kind, 64)), 2000);          //warmup
+
+            System.out.printf("%-10s %8s %14s %14s\n", kind, "depth", "us/parse", "ns/level");
+            for(int depth = 16; depth <= maxDepth; depth *= 2){
+                String source = program(expression(kind, depth));
+                int repeats = Math.max(5, 200000 / depth);
+                double nanos = time(source, repeats);
+                System.out.printf("%-10s %8d %14.1f %14.1f\n", "", depth, nanos / 1000, nanos / depth);
+            }
+            System.out.println();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        final Exception[] failure = new Exception[1];
+
+        //the parser is recursive, so deep expressions need a big stack
+        Thread bench = new Thread(null, () -> {
+            try{
+                run(maxDepth);
+            }
+            catch(Exception ex){
+                failure[0] = ex;
+            }
+        }, "ParseBench", 1L << 30);
+        bench.start();
+        bench.join();
+        if(failure[0] != null) throw failure[0];
+    }
+}
@@ -0,0 +1,199 @@
+import syntaxtree.Goal;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+//PhaseBench measures every phase of the checker on its own, so we can see which one gets slower when the compiler changes:
+//  parse       MiniJavaParser.Goal
+//  first       FirstVisitor over a parsed Goal (with a new symbol table)
+//  second      SecondVisitor over a parsed Goal and its filled symbol table
+//  twopass     FirstVisitor and then SecondVisitor (with a new symbol table), to compare with onepass
+//  onepass     SinglePassVisitor over a parsed Goal (with a new symbol table), the same checks with one traversal
+//  offsets     ClassLayout and the printing of the offsets (to a stream that drops them)
+//Each operation runs the phase once for every program of a group: tests/, tests/minijava-extra, and a few programs of
+//ProgramGenerator with more and more classes. Only the programs without errors are used, so that every phase runs to the end
+//For every group and phase it prints the throughput (mean and deviation of the measured iterations), the time of one
+//operation, and the bytes allocated per operation and per second (counted by the ThreadMXBean of the thread)
+//
+//usage: java -cp .:bench PhaseBench [--iterations <n>] [--time <ms>] [file or directory ...]
+public class PhaseBench {
+    static final String[] PHASES = {"parse", "first", "second", "twopass", "onepass", "offsets"};
+
+    static final PrintStream discard = new PrintStream(new OutputStream(){
+        public void write(int b){}
+        public void write(byte[] b, int off, int len){}
+    });
+
+    static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    //a program, with the results of its phases (so that each phase can run on the results of the previous one)
+    static class Program {
+        String source;
+        Goal root;
+        symbolTable symTable;
+    }
+
+    static MiniJavaParser parser = new MiniJavaParser(new StringReader(""));
+
+    static Goal parse(String source) throws ParseException {
+        parser.ReInit(new StringReader(source));
+        return parser.Goal();
+    }
+
+    static symbolTable first(Goal root) throws Exception {
+        symbolTable symTable = new symbolTable();
+        root.accept(new FirstVisitor(discard), symTable);
+        return symTable;
+    }
+
+    static void second(Goal root, symbolTable symTable) throws Exception {
+        root.accept(new SecondVisitor(discard), symTable);
+    }
+
+    static void onePass(Goal root) throws Exception {
+        root.accept(new SinglePassVisitor(discard), new symbolTable());
+    }
+
+    //returns null if the program has an error
+    static Program load(String source){
+        Program program = new Program();
+        program.source = source;
+        try{
+            program.root = parse(source);
+            program.symTable = first(program.root);
+            second(program.root, program.symTable);
+        }
+        catch(Exception | TokenMgrError ex){
+            return null;
+        }
+        return program;
+    }
+
+    //runs the phase once for every program
+    static void run(String phase, List<Program> programs) throws Exception {
+        for(Program program: programs){
+            switch(phase){
+                case "parse":
+                    parse(program.source);
+                    break;
+                case "first":
+                    first(program.root);
+                    break;
+                case "second":
+                    second(program.root, program.symTable);
+                    break;
+                case "twopass":
+                    second(program.root, first(program.root));
+                    break;
+                case "onepass":
+                    onePass(program.root);
+                    break;
+                default:
+                    program.symTable.buildLayouts();                //the layouts are measured too, not only the printing
+                    Checker.printOffsets(program.symTable, discard);
+            }
+        }
+    }
+
+    //one iteration: runs the phase until the time is over, returns {operations, nanoseconds, bytes allocated}
+    static long[] iteration(String phase, List<Program> programs, long millis) throws Exception {
+        long thread = Thread.currentThread().getId();
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long end = start + millis * 1000000;
+        long ops = 0;
+        long now;
+        do{
+            run(phase, programs);
+            ops++;
+        }while((now = System.nanoTime()) < end);
+        return new long[]{ops, now - start, threads.getThreadAllocatedBytes(thread) - bytes};
+    }
+
+    static void measure(String group, List<Program> programs, int iterations, long millis) throws Exception {
+        System.out.printf("%-28s %-8s %14s %12s %14s %14s %12s\n", group, "phase", "ops/s", "error", "us/op", "bytes/op", "MB/s alloc");
+        for(String phase: PHASES){
+            for(int i = 0; i < iterations; i++) iteration(phase, programs, millis);        //warmup
+
+            double[] throughput = new double[iterations];
+            long ops = 0, nanos = 0, bytes = 0;
+            for(int i = 0; i < iterations; i++){
+                long[] result = iteration(phase, programs, millis);
+                throughput[i] = result[0] / (result[1] / 1e9);
+                ops += result[0];
+                nanos += result[1];
+                bytes += result[2];
+            }
+
+            double mean = 0, deviation = 0;
+            for(double t: throughput) mean += t / iterations;
+            for(double t: throughput) deviation += (t - mean) * (t - mean) / iterations;
+            System.out.printf("%-28s %-8s %14.1f %12.1f %14.1f %14d %12.1f\n", "", phase, mean, Math.sqrt(deviation),
+                    nanos / 1000.0 / ops, bytes / ops, bytes / 1048576.0 / (nanos / 1e9));
+        }
+        System.out.println();
+    }
+
+    static void collect(File file, List<String> sources) throws Exception {
+        if(file.isDirectory()){
+            File[] children = file.listFiles();
+            java.util.Arrays.sort(children);
+            for(File child: children){
+                if(!child.isDirectory()) collect(child, sources);
+            }
+        }else if(file.getName().endsWith(".java")){
+            sources.add(new String(Files.readAllBytes(file.toPath())));
+        }
+    }
+
+    static void group(String name, List<String> sources, int iterations, long millis) throws Exception {
+        List<Program> programs = new ArrayList<Program>();
+        for(String source: sources){
+            Program program = load(source);
+            if(program != null) programs.add(program);
+        }
+        if(programs.isEmpty()) return;
+        measure(name + " (" + programs.size() + "/" + sources.size() + ")", programs, iterations, millis);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = 5;
+        long millis = 500;
+        List<String> paths = new ArrayList<String>();
+        for(int i = 0; i < args.length; i++){
+            if(args[i].equals("--iterations") && i + 1 < args.length){
+                iterations = Integer.parseInt(args[++i]);
+            }else if(args[i].equals("--time") && i + 1 < args.length){
+                millis = Long.parseLong(args[++i]);
+            }else paths.add(args[i]);
+        }
+
+        if(!paths.isEmpty()){
+            for(String path: paths){
+                List<String> sources = new ArrayList<String>();
+                collect(new File(path), sources);
+                group(path, sources, iterations, millis);
+            }
+            return;
+        }
+
+        for(String path: new String[]{"tests", "tests/minijava-extra"}){
+            List<String> sources = new ArrayList<String>();
+            collect(new File(path), sources);
+            group(path, sources, iterations, millis);
+        }
+        for(int classes: new int[]{10, 100, 1000}){
+            ProgramGenerator generator = new ProgramGenerator();
+            generator.classes = classes;
+            List<String> sources = new ArrayList<String>();
+            sources.add(generator.generate());
+            group("synthetic " + classes + " classes", sources, iterations, millis);
+        }
+    }
+}
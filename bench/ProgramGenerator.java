@@ -0,0 +1,368 @@
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+//ProgramGenerator writes random MiniJava programs that the checker accepts (or, with --ill-typed, that have exactly one
+//type error, somewhere in the middle), of any size, so we can see how the parser and the visitors scale with each of:
+//  classes         number of classes (besides the main class)
+//  depth           length of the inheritance chains (0 means that no class extends another)
+//  methods         methods per class (the first one, "int run(int a)", is declared by every class, so it is overridden)
+//  fields          fields per class
+//  locals          local variables per method
+//  statements      statements per method (the statements inside if, while and blocks count too)
+//  nesting         nesting depth of the expressions
+//The same options (and seed) always give the same program
+//
+//usage: java -cp .:bench ProgramGenerator [--classes n] [--depth n] [--methods n] [--fields n] [--locals n]
+//                                         [--statements n] [--nesting n] [--seed n] [--ill-typed] [-o <file>]
+public class ProgramGenerator {
+    public int classes = 10;
+    public int depth = 2;
+    public int methods = 3;
+    public int fields = 3;
+    public int locals = 3;
+    public int statements = 8;
+    public int nesting = 2;
+    public boolean illTyped = false;
+    public long seed = 1;
+
+    static final String INT = "int", BOOLEAN = "boolean", ARRAY = "int[]";
+    static final String[] PRIMITIVES = {INT, BOOLEAN, ARRAY};
+
+    //a method of the program: its name, the types of its parameters, and its return type
+    static class Method {
+        String name;
+        String[] parameters;
+        String returns;
+
+        Method(String name, String[] parameters, String returns){
+            this.name = name;
+            this.parameters = parameters;
+            this.returns = returns;
+        }
+    }
+
+    //a variable that a method can use
+    static class Variable {
+        String name;
+        String type;
+
+        Variable(String name, String type){
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    private Random random;
+    private StringBuilder out;
+    private int[] parent;                       //the parent of every class (-1 if it has none)
+    private List<List<Method>> methodsOf;       //the methods every class declares
+    private List<List<Variable>> fieldsOf;      //the fields every class declares
+    private int errorClass, errorMethod, errorStatement;       //where the type error goes (with illTyped)
+
+    //the method being written
+    private int currentClass;
+    private List<Variable> variables;
+
+    public String generate(){
+        random = new Random(seed);
+        out = new StringBuilder();
+        plan();
+
+        out.append("class Main {\n\tpublic static void main(String[] a){\n");
+        out.append(classes > 0 ? "\t\tSystem.out.println(new C0().run(1));\n" : "\t\tSystem.out.println(0);\n");
+        out.append("\t}\n}\n");
+
+        for(int i = 0; i < classes; i++) writeClass(i);
+        return out.toString();
+    }
+
+    //decides the hierarchy, the fields and the signatures of the methods, so that any class can use any other
+    private void plan(){
+        parent = new int[classes];
+        methodsOf = new ArrayList<List<Method>>();
+        fieldsOf = new ArrayList<List<Variable>>();
+
+        for(int i = 0; i < classes; i++){
+            parent[i] = i % (depth + 1) == 0 ? -1 : i - 1;
+
+            List<Variable> classFields = new ArrayList<Variable>();
+            for(int k = 0; k < fields; k++){
+                classFields.add(new Variable("f" + i + "_" + k, type(k, i)));
+            }
+            fieldsOf.add(classFields);
+
+            List<Method> classMethods = new ArrayList<Method>();
+            for(int k = 0; k < methods; k++){
+                if(k == 0){
+                    classMethods.add(new Method("run", new String[]{INT}, INT));
+                    continue;
+                }
+                String[] parameters = new String[k % 3];
+                for(int p = 0; p < parameters.length; p++) parameters[p] = PRIMITIVES[(k + p) % 3];
+                classMethods.add(new Method("m" + i + "_" + k, parameters, PRIMITIVES[k % 3]));
+            }
+            methodsOf.add(classMethods);
+        }
+
+        if(illTyped && classes > 0 && methods > 0){
+            errorClass = random.nextInt(classes);
+            errorMethod = random.nextInt(methods);
+            errorStatement = random.nextInt(statements + 1);
+        }else errorClass = -1;
+    }
+
+    //the k-th variable of a class is an int, a boolean, an int[], or an object of the class (or of one declared before it)
+    private String type(int k, int inClass){
+        if(k % 4 < 3) return PRIMITIVES[k % 4];
+        return "C" + random.nextInt(inClass + 1);
+    }
+
+    private void writeClass(int i){
+        out.append("\nclass C").append(i);
+        if(parent[i] != -1) out.append(" extends C").append(parent[i]);
+        out.append(" {\n");
+
+        for(Variable field: fieldsOf.get(i)){
+            out.append('\t').append(field.type).append(' ').append(field.name).append(";\n");
+        }
+        if(!fieldsOf.get(i).isEmpty()) out.append('\n');
+
+        List<Method> classMethods = methodsOf.get(i);
+        for(int k = 0; k < classMethods.size(); k++){
+            if(k > 0) out.append('\n');
+            writeMethod(i, k, classMethods.get(k));
+        }
+        out.append("}\n");
+    }
+
+    private void writeMethod(int i, int k, Method method){
+        currentClass = i;
+        variables = new ArrayList<Variable>();
+        for(int c = i; c != -1; c = parent[c]) variables.addAll(fieldsOf.get(c));
+
+        out.append("\tpublic ").append(method.returns).append(' ').append(method.name).append('(');
+        for(int p = 0; p < method.parameters.length; p++){
+            if(p > 0) out.append(", ");
+            out.append(method.parameters[p]).append(" p").append(p);
+            variables.add(new Variable("p" + p, method.parameters[p]));
+        }
+        out.append("){\n");
+
+        for(int l = 0; l < locals; l++){
+            String type = type(l, i);
+            out.append("\t\t").append(type).append(" v").append(l).append(";\n");
+            variables.add(new Variable("v" + l, type));
+        }
+
+        boolean error = i == errorClass && k == errorMethod;
+        int left = statements;
+        while(left > 0){
+            if(error && statements - left >= errorStatement){
+                writeError("\t\t");
+                error = false;
+            }
+            left -= statement("\t\t", left, 0);
+        }
+        if(error) writeError("\t\t");
+
+        out.append("\t\treturn ").append(expression(method.returns, nesting)).append(";\n\t}\n");
+    }
+
+    private void writeError(String indent){
+        switch(random.nextInt(3)){
+            case 0:
+                out.append(indent).append("System.out.println(new int[1]);\n");
+                break;
+            case 1:
+                out.append(indent).append("if (1) {} else {}\n");
+                break;
+            default:
+                out.append(indent).append("while (this) {}\n");
+        }
+    }
+
+    //writes a statement that has at most left statements in it (left > 0), returns how many it has
+    private int statement(String indent, int left, int level){
+        int kind = random.nextInt(level < 3 && left >= 3 ? 9 : 6);
+        switch(kind){
+            case 0:
+            case 1:
+            case 2: {
+                Variable variable = variables.get(random.nextInt(variables.size()));
+                out.append(indent).append(variable.name).append(" = ").append(expression(variable.type, nesting)).append(";\n");
+                return 1;
+            }
+            case 3: {
+                Variable array = variable(ARRAY);
+                if(array == null) break;
+                out.append(indent).append(array.name).append('[').append(expression(INT, nesting)).append("] = ")
+                   .append(expression(INT, nesting)).append(";\n");
+                return 1;
+            }
+            case 4:
+            case 5:
+                break;
+            case 6: {
+                out.append(indent).append("if (").append(expression(BOOLEAN, nesting)).append(")\n");
+                int used = 1 + statement(indent + "\t", (left - 1) / 2, level + 1);
+                out.append(indent).append("else\n");
+                return used + statement(indent + "\t", left - used, level + 1);
+            }
+            case 7: {
+                out.append(indent).append("while (").append(expression(BOOLEAN, nesting)).append(")\n");
+                return 1 + statement(indent + "\t", left - 1, level + 1);
+            }
+            default: {
+                out.append(indent).append("{\n");
+                int used = 1;
+                int inside = 1 + random.nextInt(Math.min(3, left - 1));
+                for(int s = 0; s < inside && used < left; s++){
+                    used += statement(indent + "\t", Math.min(left - used, (left - 1) / inside), level + 1);
+                }
+                out.append(indent).append("}\n");
+                return used;
+            }
+        }
+
+        out.append(indent).append("System.out.println(").append(expression(random.nextBoolean() ? INT : BOOLEAN, nesting)).append(");\n");
+        return 1;
+    }
+
+    //returns a random variable of the type, or null if there is none
+    private Variable variable(String type){
+        int count = 0;
+        for(Variable variable: variables){
+            if(variable.type.equals(type)) count++;
+        }
+        if(count == 0) return null;
+
+        int pick = random.nextInt(count);
+        for(Variable variable: variables){
+            if(variable.type.equals(type) && pick-- == 0) return variable;
+        }
+        return null;
+    }
+
+    //returns a random method (with its class) that returns the type, or null if there is none
+    private int[] method(String type){
+        for(int tries = 0; tries < 4 && classes > 0; tries++){
+            int c = random.nextInt(classes);
+            List<Method> inherited = new ArrayList<Method>();
+            for(int d = c; d != -1; d = parent[d]) inherited.addAll(methodsOf.get(d));
+            if(inherited.isEmpty()) continue;
+
+            Method method = inherited.get(random.nextInt(inherited.size()));
+            if(method.returns.equals(type)){
+                for(int d = c; d != -1; d = parent[d]){
+                    int index = methodsOf.get(d).indexOf(method);
+                    if(index != -1) return new int[]{c, d, index};
+                }
+            }
+        }
+        return null;
+    }
+
+    //an expression of the type, with the given nesting depth
+    private String expression(String type, int depth){
+        if(depth == 0) return leaf(type);
+
+        if(random.nextInt(4) == 0){
+            int[] found = method(type);
+            if(found != null) return messageSend(found, depth);
+        }
+
+        if(type.equals(INT)){
+            switch(random.nextInt(5)){
+                case 0: return primary(INT, depth) + " + " + primary(INT, depth);
+                case 1: return primary(INT, depth) + " - " + primary(INT, depth);
+                case 2: return primary(INT, depth) + " * " + primary(INT, depth);
+                case 3: return primary(ARRAY, depth) + "[" + primary(INT, depth) + "]";
+                default: return primary(ARRAY, depth) + ".length";
+            }
+        }
+        if(type.equals(BOOLEAN)){
+            switch(random.nextInt(3)){
+                case 0: return primary(INT, depth) + " < " + primary(INT, depth);
+                case 1: return primary(BOOLEAN, depth) + " && " + primary(BOOLEAN, depth);
+                default: return "!" + primary(BOOLEAN, depth);
+            }
+        }
+        if(type.equals(ARRAY)) return "new int[" + expression(INT, depth - 1) + "]";
+        return leaf(type);
+    }
+
+    //a primary expression with an expression of depth - 1 in it
+    private String primary(String type, int depth){
+        if(depth == 1) return leaf(type);
+        return "(" + expression(type, depth - 1) + ")";
+    }
+
+    //found is {the class of the object, the class that declares the method, the index of the method}
+    private String messageSend(int[] found, int depth){
+        Method method = methodsOf.get(found[1]).get(found[2]);
+        StringBuilder call = new StringBuilder();
+        call.append(found[0] == currentClass && random.nextBoolean() ? "this" : "new C" + found[0] + "()");
+        call.append('.').append(method.name).append('(');
+        for(int p = 0; p < method.parameters.length; p++){
+            if(p > 0) call.append(", ");
+            call.append(expression(method.parameters[p], depth - 1));
+        }
+        return call.append(')').toString();
+    }
+
+    //an expression of the type without anything nested in it: a literal, a variable, this, or an allocation
+    private String leaf(String type){
+        if(random.nextBoolean()){
+            Variable variable = variable(type);
+            if(variable != null) return variable.name;
+        }
+        if(type.equals(INT)) return Integer.toString(random.nextInt(100));
+        if(type.equals(BOOLEAN)) return random.nextBoolean() ? "true" : "false";
+        if(type.equals(ARRAY)) return "new int[" + random.nextInt(100) + "]";
+        if(type.equals("C" + currentClass) && random.nextBoolean()) return "this";
+        return "new " + type + "()";
+    }
+
+    public static void main(String[] args) throws Exception {
+        ProgramGenerator generator = new ProgramGenerator();
+        String file = null;
+        for(int i = 0; i < args.length; i++){
+            String option = args[i];
+            if(option.equals("--ill-typed")){
+                generator.illTyped = true;
+                continue;
+            }
+            if(i + 1 >= args.length){
+                System.err.println("missing value for " + option);
+                System.exit(1);
+            }
+            String value = args[++i];
+            switch(option){
+                case "--classes": generator.classes = Integer.parseInt(value); break;
+                case "--depth": generator.depth = Integer.parseInt(value); break;
+                case "--methods": generator.methods = Integer.parseInt(value); break;
+                case "--fields": generator.fields = Integer.parseInt(value); break;
+                case "--locals": generator.locals = Integer.parseInt(value); break;
+                case "--statements": generator.statements = Integer.parseInt(value); break;
+                case "--nesting": generator.nesting = Integer.parseInt(value); break;
+                case "--seed": generator.seed = Long.parseLong(value); break;
+                case "-o": file = value; break;
+                default:
+                    System.err.println("unknown option " + option);
+                    System.exit(1);
+            }
+        }
+
+        String program = generator.generate();
+        if(file == null){
+            System.out.print(program);
+        }else{
+            try(PrintWriter writer = new PrintWriter(new FileWriter(file))){
+                writer.print(program);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+import java.util.List;
+
+//ScaleBench shows how each phase scales with each dimension of the programs of ProgramGenerator: for every dimension,
+//it starts from the default program, doubles the dimension a few times, and times parse, first and second on the result
+//If a phase is linear in the size of the program, its ns/char column stays about the same as the dimension grows
+//The output has one line per program, with tab separated columns, so it can be plotted as it is
+//
+//usage: java -cp .:bench ScaleBench [--time <ms>] [dimension ...]        (default: every dimension)
+public class ScaleBench {
+    static final String[] DIMENSIONS = {"classes", "depth", "methods", "fields", "locals", "statements", "nesting"};
+    static final String[] PHASES = {"parse", "first", "second"};
+
+    //the values every dimension takes
+    static int[] values(String dimension){
+        switch(dimension){
+            case "classes": return new int[]{8, 16, 32, 64, 128, 256, 512};
+            case "depth": return new int[]{0, 1, 2, 4, 8, 16, 32, 64};
+            case "methods": return new int[]{2, 4, 8, 16, 32, 64};
+            case "fields": return new int[]{2, 4, 8, 16, 32, 64, 128};
+            case "locals": return new int[]{2, 4, 8, 16, 32, 64, 128};
+            case "statements": return new int[]{4, 8, 16, 32, 64, 128, 256};
+            default: return new int[]{1, 2, 3, 4, 5, 6, 7, 8};         //the size of the expressions doubles with every level
+        }
+    }
+
+    static ProgramGenerator generator(String dimension, int value){
+        ProgramGenerator generator = new ProgramGenerator();
+        generator.classes = 32;
+        switch(dimension){
+            case "classes": generator.classes = value; break;
+            case "depth": generator.depth = value; break;
+            case "methods": generator.methods = value; break;
+            case "fields": generator.fields = value; break;
+            case "locals": generator.locals = value; break;
+            case "statements": generator.statements = value; break;
+            default: generator.nesting = value;
+        }
+        return generator;
+    }
+
+    static void run(List<String> dimensions, long millis) throws Exception {
+        //the JIT needs a few seconds before the first lines are comparable with the rest
+        List<PhaseBench.Program> warmup = new ArrayList<PhaseBench.Program>();
+        warmup.add(PhaseBench.load(generator("classes", 32).generate()));
+        for(int i = 0; i < 10; i++){
+            for(String phase: PHASES) PhaseBench.iteration(phase, warmup, 300);
+        }
+
+        System.out.print("dimension\tvalue\tchars");
+        for(String phase: PHASES) System.out.print("\t" + phase + " us\t" + phase + " ns/char");
+        System.out.println();
+
+        for(String dimension: dimensions){
+            for(int value: values(dimension)){
+                String source = generator(dimension, value).generate();
+                PhaseBench.Program program = PhaseBench.load(source);
+                if(program == null) throw new Error("the generated program has an error: " + dimension + " " + value);
+                List<PhaseBench.Program> programs = new ArrayList<PhaseBench.Program>();
+                programs.add(program);
+
+                System.out.print(dimension + "\t" + value + "\t" + source.length());
+                for(String phase: PHASES){
+                    PhaseBench.iteration(phase, programs, millis);                  //warmup
+                    long[] result = PhaseBench.iteration(phase, programs, millis);
+                    double nanos = result[1] / (double) result[0];
+                    System.out.printf("\t%.1f\t%.1f", nanos / 1000, nanos / source.length());
+                }
+                System.out.println();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        long millis = 200;
+        List<String> dimensions = new ArrayList<String>();
+        for(int i = 0; i < args.length; i++){
+            if(args[i].equals("--time") && i + 1 < args.length){
+                millis = Long.parseLong(args[++i]);
+            }else dimensions.add(args[i]);
+        }
+        if(dimensions.isEmpty()){
+            for(String dimension: DIMENSIONS) dimensions.add(dimension);
+        }
+
+        final long time = millis;
+        final Exception[] failure = new Exception[1];
+
+        //deep inheritance and nesting make the parser and the visitors recurse deeply
+        Thread bench = new Thread(null, () -> {
+            try{
+                run(dimensions, time);
+            }
+            catch(Exception ex){
+                failure[0] = ex;
+            }
+        }, "ScaleBench", 1L << 30);
+        bench.start();
+        bench.join();
+        if(failure[0] != null) throw failure[0];
+    }
+}
@@ -0,0 +1,72 @@
+import syntaxtree.Goal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+//SnapshotBench compares parsing a program with loading it from its snapshot (AstSnapshot), on programs of ProgramGenerator
+//with more and more classes:
+//  parse       MiniJavaParser.Goal from the source
+//  load        the snapshot mapped in memory and read into an Ast, and the tree of the parser made from it (what --snapshots does)
+//  ast         only the snapshot read into an Ast (for a checker that works on the flat tree)
+//It also prints the size of the source and of the snapshot
+//
+//usage: java -cp .:bench SnapshotBench [--time <ms>]
+public class SnapshotBench {
+    static final int[] CLASSES = {10, 100, 1000};
+
+    static ByteBuffer map(File file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    //the microseconds of one run of the operation (0 parse, 1 load, 2 ast), timed for about millis
+    static double time(int operation, String source, File snapshot, long millis) throws Exception {
+        long start = System.nanoTime(), end = start + millis * 1000000L, runs = 0, sink = 0;
+        while(System.nanoTime() < end){
+            if(operation == 0){
+                sink += PhaseBench.parse(source).f1.size();
+            }else if(operation == 1){
+                sink += AstSnapshot.read(map(snapshot)).toGoal().f1.size();
+            }else sink += AstSnapshot.read(map(snapshot)).size();
+            runs++;
+        }
+        if(sink == 42) System.out.print("");
+        return (System.nanoTime() - start) / 1000.0 / runs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long millis = 1000;
+        for(int i = 0; i < args.length; i++){
+            if(args[i].equals("--time") && i + 1 < args.length) millis = Long.parseLong(args[++i]);
+        }
+
+        System.out.println("classes\tsource KB\tsnapshot KB\tparse us\tload us\tast us");
+        for(int classes: CLASSES){
+            ProgramGenerator generator = new ProgramGenerator();
+            generator.classes = classes;
+            String source = generator.generate();
+
+            Goal root = PhaseBench.parse(source);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            AstSnapshot.write(Ast.of(root), new DataOutputStream(bytes));
+            File snapshot = File.createTempFile("SnapshotBench", AstSnapshot.SUFFIX);
+            snapshot.deleteOnExit();
+            Files.write(snapshot.toPath(), bytes.toByteArray());
+
+            double parse = 0, load = 0, ast = 0;
+            for(int warmup = 0; warmup < 2; warmup++){
+                parse = time(0, source, snapshot, millis);
+                load = time(1, source, snapshot, millis);
+                ast = time(2, source, snapshot, millis);
+            }
+            System.out.printf("%d\t%d\t%d\t%.1f\t%.1f\t%.1f\n", classes, source.length() / 1024, bytes.size() / 1024, parse, load, ast);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+//SourceBench times the parsing of the same files from each input source:
+//  stream      FileInputStream, decoded by the Reader of JavaCharStream (what Main does by default)
+//  mmap        the file mapped in memory, read by ByteCharStream
+//  bytes       the file read in a byte[], read by ByteCharStream
+//  chars       the file already in a char[], read by JavaCharStream in compact position mode
+//It runs on the tests/ corpus and on a few synthetic programs of some megabytes
+//
+//usage: java -cp .:bench SourceBench [megabytes ...]        (default: 1 4 16)
+public class SourceBench {
+    static final String[] SOURCES = {"stream", "mmap", "bytes", "chars"};
+
+    //writes a program with classes like the ones of the tests, until it has about the given size
+    static File synthetic(int kilobytes) throws IOException {
+        File file = File.createTempFile("SourceBench" + kilobytes + "KB", ".java");
+        file.deleteOnExit();
+        try(PrintWriter out = new PrintWriter(new FileWriter(file))){
+            out.println("class Main {\n\tpublic static void main(String[] a){\n\t\tSystem.out.println(new C0().run(10));\n\t}\n}");
+            long size = 0;
+            for(int i = 0; size < kilobytes * 1024L; i++){
+                String text = "\nclass C" + i + " {\n"
+                        + "\tint count;\n\tint[] values;\n\tboolean done;\n\n"
+                        + "\tpublic int run(int n){\n\t\tint i;\n\t\tint sum;\n"
+                        + "\t\tvalues = new int[n];\n\t\ti = 0;\n\t\tsum = 0;\n"
+                        + "\t\twhile (i < n) {\n\t\t\tvalues[i] = i * 2;\n\t\t\tsum = sum + i;\n\t\t\ti = i + 1;\n\t\t}\n"
+                        + "\t\tif (!done && (sum < 100)) done = true; else count = count - 1;\n"
+                        + "\t\treturn sum + (this.size(values));\n\t}\n\n"
+                        + "\tpublic int size(int[] v){\n\t\treturn v.length;\n\t}\n}\n";
+                out.print(text);
+                size += text.length();
+            }
+        }
+        return file;
+    }
+
+    static void parse(String source, File file, char[] chars) throws Exception {
+        MiniJavaParser parser;
+        switch(source){
+            case "stream":
+                try(FileInputStream fis = new FileInputStream(file)){
+                    new MiniJavaParser(fis).Goal();
+                }
+                return;
+            case "mmap":
+                try(FileInputStream fis = new FileInputStream(file)){
+                    FileChannel channel = fis.getChannel();
+                    parser = new MiniJavaParser(new MiniJavaParserTokenManager(new ByteCharStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()))));
+                    parser.Goal();
+                }
+                return;
+            case "bytes":
+                parser = new MiniJavaParser(new MiniJavaParserTokenManager(new ByteCharStream(ByteBuffer.wrap(Files.readAllBytes(file.toPath())))));
+                parser.Goal();
+                return;
+            default:
+                parser = new MiniJavaParser(new MiniJavaParserTokenManager(new JavaCharStream(chars, chars.length)));
+                parser.Goal();
+        }
+    }
+
+    //returns the total time in nanoseconds of parsing every file once (the best of a few rounds)
+    static double time(String source, List<File> files, List<char[]> chars, int rounds) throws Exception {
+        double best = Double.MAX_VALUE;
+        for(int round = 0; round < rounds; round++){
+            long start = System.nanoTime();
+            for(int i = 0; i < files.size(); i++) parse(source, files.get(i), chars.get(i));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    static void run(String name, List<File> files, int rounds) throws Exception {
+        List<char[]> chars = new ArrayList<char[]>();
+        long size = 0;
+        for(File file: files){
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            if(!ByteCharStream.canRead(ByteBuffer.wrap(bytes)))
+                throw new Error(file + " is not ascii, or has unicode escapes");
+            chars.add(new String(bytes).toCharArray());
+            size += bytes.length;
+        }
+
+        for(String source: SOURCES) time(source, files, chars, rounds);          //warmup
+
+        System.out.printf("%-20s %10s %14s %10s\n", name, "source", "ms", "MB/s");
+        for(String source: SOURCES){
+            double nanos = time(source, files, chars, rounds);
+            System.out.printf("%-20s %10s %14.2f %10.1f\n", "", source, nanos / 1e6, size / 1048576.0 / (nanos / 1e9));
+        }
+        System.out.println();
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<File> corpus = new ArrayList<File>();
+        for(File file: new File("tests").listFiles()){
+            //only the files that parse (some of the tests have syntax errors on purpose)
+            if(!file.getName().endsWith(".java")) continue;
+            try{
+                parse("stream", file, null);
+                corpus.add(file);
+            }
+            catch(ParseException | TokenMgrError ex){
+            }
+        }
+        run("tests (" + corpus.size() + " files)", corpus, 20);
+
+        int[] sizes = {1, 4, 16};
+        if(args.length > 0){
+            sizes = new int[args.length];
+            for(int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+        }
+        for(int megabytes: sizes){
+            List<File> files = new ArrayList<File>();
+            files.add(synthetic(megabytes * 1024));
+            run("synthetic " + megabytes + " MB", files, 3);
+        }
+    }
+}
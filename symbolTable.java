@@ -1,65 +1,174 @@
 import java.util.*;
 
 public class symbolTable {
-    LinkedHashMap<String, Classes> classMap;
-    LinkedHashMap<String, offset> offsetMap;       //I use LinkedHashMap instead of HashMap, so the offset prints the classes in the order of their declaration
-                                                    //The rest of the HashMaps, are also linked, for the sake of uniformity
+    SymbolMap<Classes> classMap;                    //the maps are keyed by the symbols of the names (see Symbols), and they keep the order of
+    SymbolMap<ClassLayout> layoutMap;               //the declarations, so the offset prints the classes in the order of their declaration
+                                                    //(layoutMap is null until buildLayouts makes the layouts)
+    SymbolMap<ClassTypeRef> typeMap;                //the one type of every class name that has been used (declared or not)
+    int lookups;                                    //how many classes were looked up (for --stats)
+    boolean frozen;                                 //true when the symbol table is read by many threads at once (see freeze)
+
+    //the lookups in a frozen table, counted by every thread for itself (the counters of the table are shared by the threads)
+    private static final ThreadLocal<int[]> frozenLookups = ThreadLocal.withInitial(() -> new int[1]);
 
 
     public symbolTable(){
-        this.classMap = new LinkedHashMap<String, Classes>();
-        this.offsetMap = new LinkedHashMap<String, offset>();
+        this.classMap = new SymbolMap<Classes>();
+        this.typeMap = new SymbolMap<ClassTypeRef>();
     }
 
-    public String addClass(String className, Classes parentClass){
-        if(classMap.containsKey(className))
-            return null;
+    //returns the type of the class, making it the first time the name is used (even if the class has not been declared yet)
+    //When the table is frozen, a name that was never used gets a type that is not kept (it can only be a class that is not declared)
+    public ClassTypeRef classType(int symbol, String className){
+        ClassTypeRef type = typeMap.get(symbol);
+        if(type == null){
+            type = new ClassTypeRef(className);
+            if(!frozen) typeMap.put(symbol, type);
+        }
+        return type;
+    }
 
-        Classes insertedClass = new Classes(className, parentClass);
-        classMap.put(className, insertedClass);                     //insert the created class into the symbol table's class hash map
-        return className;
+    //makes the symbol table read only, so that the checks of the methods can read it from many threads at once (--parallel)
+    //Nothing is added to it after this: the methods that add to it or build its tables throw an IllegalStateException (in the
+    //table, in its classes and in their methods), and classType doesn't keep new types
+    //The lookups are not counted in the lookups of the table any more, but in the thread that does them (see countLookup):
+    //whoever runs the checks adds them to lookups when they are done
+    public void freeze(){
+        frozen = true;
+        for(Classes tmpClass: classMap.values()){
+            tmpClass.frozen = true;
+            for(Methods tmpMethod: tmpClass.methodMap.values()) tmpMethod.frozen = true;
+        }
     }
 
-    public Classes getClass(String className){
-      if(!classMap.containsKey(className)){
-          return null;
-      }else return classMap.get(className);
+    //makes the symbol table writable again, when the threads that read it are done
+    public void thaw(){
+        frozen = false;
+        for(Classes tmpClass: classMap.values()){
+            tmpClass.frozen = false;
+            for(Methods tmpMethod: tmpClass.methodMap.values()) tmpMethod.frozen = false;
+        }
     }
 
-    //adds parent class to the class that was given
-    public String addClassExtension(String className, String parentName){
-        if(!classMap.containsKey(parentName)){
-            return null;
+    //throws if the table is frozen, in the methods that change it
+    static void checkNotFrozen(boolean frozen){
+        if(frozen)
+            throw new IllegalStateException("the symbol table is frozen");
+    }
+
+    //counts a lookup of a frozen table (or of one of its classes or methods) in the current thread
+    static void countLookup(){
+        frozenLookups.get()[0]++;
+    }
+
+    //how many lookups of frozen tables the current thread has done (the difference of two calls is what was done in between)
+    static int threadLookups(){
+        return frozenLookups.get()[0];
+    }
+
+    //makes the layout of every class (the offsets of its fields and of its methods), when the symbol table is filled
+    //policy is how the fields are placed (ClassLayout.DECLARATION, ALIGNED or PACKED)
+    public void buildLayouts(int policy){
+        checkNotFrozen(frozen);
+        this.layoutMap = ClassLayout.layout(this, policy);
+        for(ClassLayout layout: layoutMap.values()) layout.apply();
+    }
+
+    public void buildLayouts(){
+        buildLayouts(ClassLayout.DECLARATION);
+    }
+
+    //numbers the classes in the order of a depth first walk of the class tree (every class before the classes that extend it)
+    //so that the classes that extend a class get the numbers from its pre to its post, and isSubtype needs only two comparisons
+    //FirstVisitor calls it when it has added every class
+    public void buildHierarchy(){
+        checkNotFrozen(frozen);
+        HashMap<Classes, ArrayList<Classes>> children = new HashMap<Classes, ArrayList<Classes>>();
+        ArrayList<Classes> roots = new ArrayList<Classes>();
+        for(Classes tmpClass: classMap.values()){
+            if(tmpClass.parentClass == null){
+                roots.add(tmpClass);
+            }else{
+                ArrayList<Classes> list = children.get(tmpClass.parentClass);
+                if(list == null){
+                    list = new ArrayList<Classes>();
+                    children.put(tmpClass.parentClass, list);
+                }
+                list.add(tmpClass);
+            }
         }
 
-        Classes insertedClassParent = this.getClass(parentName);
-        Classes insertedClass = new Classes(className, insertedClassParent);
-        classMap.put(className, insertedClass);
+        //the walk uses its own stack, because the chains of extends can be much deeper than the java stack
+        int number = 0;
+        ArrayDeque<Classes> stack = new ArrayDeque<Classes>();
+        ArrayDeque<Integer> next = new ArrayDeque<Integer>();          //the next child to visit, of every class in stack
+        for(Classes root: roots){
+            root.pre = number++;
+            stack.push(root);
+            next.push(0);
+            while(!stack.isEmpty()){
+                Classes tmpClass = stack.peek();
+                ArrayList<Classes> list = children.get(tmpClass);
+                int child = next.pop();
+                if(list != null && child < list.size()){
+                    next.push(child + 1);
+                    Classes childClass = list.get(child);
+                    childClass.pre = number++;
+                    stack.push(childClass);
+                    next.push(0);
+                }else{
+                    tmpClass.post = number - 1;
+                    stack.pop();
+                }
+            }
+        }
+    }
 
-        return className;
+    //returns true if a value of type a can be used where type b is needed: if they are the same type,
+    //or if a is a class that extends b (even through other classes)
+    public boolean isSubtype(TypeRef a, TypeRef b){
+        if(a == b) return true;
+        Classes classA = a.declaration();
+        Classes classB = b.declaration();
+        if(classA == null || classB == null) return false;
+        return classB.pre <= classA.pre && classA.pre <= classB.post;
     }
-}
 
-class offset {
-    public String offsetName;         //is the offset's class
-    public String print;              //contains the text that gets printed for every class
-    public int variableOffset;
-    public int methodOffset;
-
-    offset(String offsetName){
-        this.offsetName = offsetName;
-        this.print = null;
-        this.variableOffset = 0;
-        this.methodOffset = 0;
+    //the class becomes the declaration of its type
+    private void bind(Classes insertedClass){
+        insertedClass.type = classType(insertedClass.symbol, insertedClass.className);
+        insertedClass.type.declaration = insertedClass;
     }
 
-    void addPrint(String offsetLine){
-        if(this.print == null){
-            this.print = offsetLine;
-        }else this.print += offsetLine;
+    public String addClass(int symbol, String className, Classes parentClass){
+        checkNotFrozen(frozen);
+        if(classMap.containsKey(symbol))
+            return null;
+
+        Classes insertedClass = new Classes(symbol, className, parentClass);
+        classMap.put(symbol, insertedClass);                        //insert the created class into the symbol table's class map
+        bind(insertedClass);
+        return className;
     }
 
-    void printOffset(){
-        System.out.print(this.print);
+    public Classes getClass(int symbol){
+      if(frozen) countLookup();
+      else lookups++;
+      return classMap.get(symbol);
     }
-}
\ No newline at end of file
+
+    //adds parent class to the class that was given
+    public String addClassExtension(int symbol, String className, int parentSymbol){
+        checkNotFrozen(frozen);
+        if(!classMap.containsKey(parentSymbol)){
+            return null;
+        }
+
+        Classes insertedClassParent = this.getClass(parentSymbol);
+        Classes insertedClass = new Classes(symbol, className, insertedClassParent);
+        classMap.put(symbol, insertedClass);
+        bind(insertedClass);
+
+        return className;
+    }
+}
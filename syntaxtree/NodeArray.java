@@ -0,0 +1,73 @@
+package syntaxtree;
+
+import java.util.*;
+
+/**
+ * The children of a NodeList, NodeListOptional or NodeSequence. It is a list of nodes in an array, without the locks of a
+ * Vector (a tree is made and visited by one thread), with the methods of Vector that the parser and the visitors use
+ * (addElement, elementAt, elements, trimToSize), so they did not need to change when the lists stopped being Vectors.
+ * An empty list has no array, the first node gets an array of 2 (most lists have one or two nodes), and the parser calls
+ * trimToSize at the end of every list, so the array of a parsed list has exactly its nodes.
+ */
+public class NodeArray extends AbstractList<Node> implements RandomAccess {
+   private static final Node[] EMPTY = new Node[0];
+
+   private Node[] elementData;
+   private int elementCount;
+
+   public NodeArray() {
+      elementData = EMPTY;
+   }
+
+   public NodeArray(int capacity) {
+      elementData = capacity == 0 ? EMPTY : new Node[capacity];
+   }
+
+   public void addElement(Node n) {
+      if (elementCount == elementData.length)
+         elementData = Arrays.copyOf(elementData, elementCount < 2 ? 2 : 2 * elementCount);
+      elementData[elementCount++] = n;
+      modCount++;
+   }
+
+   public boolean add(Node n) {
+      addElement(n);
+      return true;
+   }
+
+   public Node elementAt(int i) {
+      if (i >= elementCount)
+         throw new ArrayIndexOutOfBoundsException(i + " >= " + elementCount);
+      return elementData[i];
+   }
+
+   public Node get(int i) {
+      return elementAt(i);
+   }
+
+   public int size() {
+      return elementCount;
+   }
+
+   public Enumeration<Node> elements() {
+      return new Enumeration<Node>() {
+         int next = 0;
+
+         public boolean hasMoreElements() {
+            return next < elementCount;
+         }
+
+         public Node nextElement() {
+            if (next >= elementCount)
+               throw new NoSuchElementException();
+            return elementData[next++];
+         }
+      };
+   }
+
+   /** Drops the unused end of the array. */
+   public void trimToSize() {
+      if (elementData.length > elementCount)
+         elementData = elementCount == 0 ? EMPTY : Arrays.copyOf(elementData, elementCount);
+   }
+}
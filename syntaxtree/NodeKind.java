@@ -0,0 +1,137 @@
+package syntaxtree;
+
+/**
+ * The kinds of the nodes of the flat tree (Ast), one for every production of the grammar, and two for the lists and the
+ * optional parts. The children of a node are the parts of its production that are not tokens, in their order (the tokens
+ * are kept in the token table of the tree, and a node knows the index of its first one):
+ *
+ *   LIST                          the elements of a ( ... )*
+ *   OPTIONAL                      the element of a ( ... )?, or no child
+ *   GOAL                          MainClass, LIST of class declarations
+ *   MAIN_CLASS                    Identifier, Identifier (of the arguments), LIST of VarDeclaration, LIST of statements
+ *   CLASS_DECLARATION             Identifier, LIST of VarDeclaration, LIST of MethodDeclaration
+ *   CLASS_EXTENDS_DECLARATION     Identifier, Identifier (of the parent), LIST of VarDeclaration, LIST of MethodDeclaration
+ *   VAR_DECLARATION               type, Identifier
+ *   METHOD_DECLARATION            type, Identifier, OPTIONAL FormalParameterList, LIST of VarDeclaration, LIST of statements, expression
+ *   FORMAL_PARAMETER_LIST         FormalParameter, FormalParameterTail
+ *   FORMAL_PARAMETER              type, Identifier
+ *   FORMAL_PARAMETER_TAIL         LIST of FormalParameterTerm
+ *   FORMAL_PARAMETER_TERM         FormalParameter
+ *   ARRAY_TYPE, BOOLEAN_TYPE, INTEGER_TYPE                       no children
+ *   BLOCK                         LIST of statements
+ *   ASSIGNMENT_STATEMENT          Identifier, expression
+ *   ARRAY_ASSIGNMENT_STATEMENT    Identifier, expression (the index), expression
+ *   IF_STATEMENT                  expression, statement, statement (of the else)
+ *   WHILE_STATEMENT               expression, statement
+ *   PRINT_STATEMENT               expression
+ *   AND_EXPRESSION ... TIMES_EXPRESSION, ARRAY_LOOKUP            primary expression, primary expression
+ *   ARRAY_LENGTH                  primary expression
+ *   MESSAGE_SEND                  primary expression, Identifier, OPTIONAL ExpressionList
+ *   EXPRESSION_LIST               expression, ExpressionTail
+ *   EXPRESSION_TAIL               LIST of ExpressionTerm
+ *   EXPRESSION_TERM               expression
+ *   INTEGER_LITERAL, TRUE_LITERAL, FALSE_LITERAL, IDENTIFIER, THIS_EXPRESSION    no children (the literal and the name are
+ *                                 the image of the first token)
+ *   ARRAY_ALLOCATION_EXPRESSION   expression
+ *   ALLOCATION_EXPRESSION         Identifier
+ *   NOT_EXPRESSION                primary expression
+ *   BRACKET_EXPRESSION            expression
+ *
+ * The productions that are only a choice (TypeDeclaration, Type, Statement, Expression, PrimaryExpression) are not in the
+ * flat tree: it has the node that was chosen in their place, so a "type" or a "statement" above is a node of one of the kinds
+ * of that choice.
+ *
+ * The kinds from TOKEN on are the classes of the tree of the parser that an Ast does not have (the tokens, the JTB wrappers
+ * and the choices), so that every node of that tree has a kind too (see of).
+ */
+public final class NodeKind {
+   public static final int LIST = 0;
+   public static final int OPTIONAL = 1;
+   public static final int GOAL = 2;
+   public static final int MAIN_CLASS = 3;
+   public static final int CLASS_DECLARATION = 4;
+   public static final int CLASS_EXTENDS_DECLARATION = 5;
+   public static final int VAR_DECLARATION = 6;
+   public static final int METHOD_DECLARATION = 7;
+   public static final int FORMAL_PARAMETER_LIST = 8;
+   public static final int FORMAL_PARAMETER = 9;
+   public static final int FORMAL_PARAMETER_TAIL = 10;
+   public static final int FORMAL_PARAMETER_TERM = 11;
+   public static final int ARRAY_TYPE = 12;
+   public static final int BOOLEAN_TYPE = 13;
+   public static final int INTEGER_TYPE = 14;
+   public static final int BLOCK = 15;
+   public static final int ASSIGNMENT_STATEMENT = 16;
+   public static final int ARRAY_ASSIGNMENT_STATEMENT = 17;
+   public static final int IF_STATEMENT = 18;
+   public static final int WHILE_STATEMENT = 19;
+   public static final int PRINT_STATEMENT = 20;
+   public static final int AND_EXPRESSION = 21;
+   public static final int COMPARE_EXPRESSION = 22;
+   public static final int PLUS_EXPRESSION = 23;
+   public static final int MINUS_EXPRESSION = 24;
+   public static final int TIMES_EXPRESSION = 25;
+   public static final int ARRAY_LOOKUP = 26;
+   public static final int ARRAY_LENGTH = 27;
+   public static final int MESSAGE_SEND = 28;
+   public static final int EXPRESSION_LIST = 29;
+   public static final int EXPRESSION_TAIL = 30;
+   public static final int EXPRESSION_TERM = 31;
+   public static final int INTEGER_LITERAL = 32;
+   public static final int TRUE_LITERAL = 33;
+   public static final int FALSE_LITERAL = 34;
+   public static final int IDENTIFIER = 35;
+   public static final int THIS_EXPRESSION = 36;
+   public static final int ARRAY_ALLOCATION_EXPRESSION = 37;
+   public static final int ALLOCATION_EXPRESSION = 38;
+   public static final int NOT_EXPRESSION = 39;
+   public static final int BRACKET_EXPRESSION = 40;
+
+   /** The kinds after these are only in the tree of the parser (an Ast has none of them). */
+   public static final int AST_KINDS = 41;
+
+   public static final int TOKEN = 41;
+   public static final int CHOICE = 42;
+   public static final int SEQUENCE = 43;
+   public static final int NODE_LIST = 44;
+   public static final int TYPE_DECLARATION = 45;
+   public static final int TYPE = 46;
+   public static final int STATEMENT = 47;
+   public static final int EXPRESSION = 48;
+   public static final int PRIMARY_EXPRESSION = 49;
+
+   /** The name of every kind: the name of the syntaxtree class of its production (or of the JTB node, like NodeListOptional). */
+   public static final String[] NAMES = {
+      "NodeListOptional", "NodeOptional", "Goal", "MainClass", "ClassDeclaration", "ClassExtendsDeclaration",
+      "VarDeclaration", "MethodDeclaration", "FormalParameterList", "FormalParameter", "FormalParameterTail",
+      "FormalParameterTerm", "ArrayType", "BooleanType", "IntegerType", "Block", "AssignmentStatement",
+      "ArrayAssignmentStatement", "IfStatement", "WhileStatement", "PrintStatement", "AndExpression", "CompareExpression",
+      "PlusExpression", "MinusExpression", "TimesExpression", "ArrayLookup", "ArrayLength", "MessageSend", "ExpressionList",
+      "ExpressionTail", "ExpressionTerm", "IntegerLiteral", "TrueLiteral", "FalseLiteral", "Identifier", "ThisExpression",
+      "ArrayAllocationExpression", "AllocationExpression", "NotExpression", "BracketExpression",
+      "NodeToken", "NodeChoice", "NodeSequence", "NodeList", "TypeDeclaration", "Type", "Statement", "Expression",
+      "PrimaryExpression"
+   };
+
+   /** The productions that are only a choice, and so are not in an Ast. */
+   public static final String[] CHOICES = {"TypeDeclaration", "Type", "Statement", "Expression", "PrimaryExpression"};
+
+   private static final ClassValue<Integer> kinds = new ClassValue<Integer>() {
+      protected Integer computeValue(Class<?> type) {
+         for (int i = 0; i < NAMES.length; i++)
+            if (NAMES[i].equals(type.getSimpleName()) && type.getPackage() == Node.class.getPackage())
+               return i;
+         throw new IllegalArgumentException("not a node of the syntaxtree: " + type.getName());
+      }
+   };
+
+   /**
+    * The kind of a node of the tree of the parser (every class of the syntaxtree has one, so a visitor can switch on it, see
+    * visitor.GJSwitchDepthFirst). A class that extends a node class is not a node of the syntaxtree, and has none.
+    */
+   public static int of(Node n) {
+      return kinds.get(n.getClass());
+   }
+
+   private NodeKind() {}
+}
@@ -11,11 +11,11 @@ import java.util.*;
  */
 public class NodeList implements NodeListInterface {
    public NodeList() {
-      nodes = new Vector<Node>();
+      nodes = new NodeArray();
    }
 
    public NodeList(Node firstNode) {
-      nodes = new Vector<Node>();
+      nodes = new NodeArray();
       addNode(firstNode);
    }
 
@@ -39,6 +39,6 @@ public class NodeList implements NodeListInterface {
       v.visit(this,argu);
    }
 
-   public Vector<Node> nodes;
+   public NodeArray nodes;
 }
 
@@ -11,11 +11,11 @@ import java.util.*;
  */
 public class NodeListOptional implements NodeListInterface {
    public NodeListOptional() {
-      nodes = new Vector<Node>();
+      nodes = new NodeArray();
    }
 
    public NodeListOptional(Node firstNode) {
-      nodes = new Vector<Node>();
+      nodes = new NodeArray();
       addNode(firstNode);
    }
 
@@ -40,6 +40,6 @@ public class NodeListOptional implements NodeListInterface {
       v.visit(this,argu);
    }
 
-   public Vector<Node> nodes;
+   public NodeArray nodes;
 }
 
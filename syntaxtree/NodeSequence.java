@@ -12,11 +12,11 @@ import java.util.*;
  */
 public class NodeSequence implements NodeListInterface {
    public NodeSequence(int n) {
-      nodes = new Vector<Node>(n);
+      nodes = new NodeArray(n);
    }
 
    public NodeSequence(Node firstNode) {
-      nodes = new Vector<Node>();
+      nodes = new NodeArray();
       addNode(firstNode);
    }
 
@@ -40,6 +40,6 @@ public class NodeSequence implements NodeListInterface {
       v.visit(this,argu);
    }
 
-   public Vector<Node> nodes;
+   public NodeArray nodes;
 }
 
@@ -83,5 +83,8 @@ public class NodeToken implements Node {
    // Equal to the JavaCC token "kind" integer.
    // -1 if not available.
    public int kind;
+
+   // The symbol of the name of an identifier (see Symbols), -1 for the other tokens.
+   public int symbol = -1;
 }
 
@@ -0,0 +1,54 @@
+class Layout{
+    public static void main(String[] a){
+        System.out.println(new Child().init());
+    }
+}
+
+// 26 bytes with every policy: the references first, then two booleans
+class Parent {
+    Parent p1;
+    Parent p2;
+    int[] p3;
+    boolean b1;
+    boolean b2;
+}
+
+// starts at 26: declaration order gives 39, aligned and packed give 40 (c at 26, j at 28, p at 32)
+class Child extends Parent {
+    boolean c;
+    int j;
+    Parent p;
+
+    public int init(){
+        c = true;
+        j = 1;
+        p = new Parent();
+        return j;
+    }
+}
+
+// packing puts the reference first, then the int, then the booleans: 14 bytes instead of 24 aligned
+class Mixed {
+    boolean a;
+    Parent b;
+    boolean c;
+    int d;
+
+    public int get(){
+        return d;
+    }
+}
+
+// extends Mixed at 14: the int goes to 16, and the boolean fills the gap at 14
+class MixedChild extends Mixed {
+    int e;
+    boolean f;
+
+    public int get(){
+        return e;
+    }
+
+    public boolean flag(){
+        return f;
+    }
+}
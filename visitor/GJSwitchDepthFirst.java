@@ -0,0 +1,742 @@
+//
+// Made from GJDepthFirst.java (of JTB 1.3.2), with every n.accept(this, argu) replaced by dispatch(n, argu)
+// JTB does not make this file, and make compile does not remake it: after a change in the grammar, it must be remade by
+// hand from the new GJDepthFirst.java, with a case for every new kind of syntaxtree.NodeKind (see the Makefile)
+//
+
+package visitor;
+import syntaxtree.*;
+import java.util.*;
+
+/**
+ * Visits the nodes of the tree in depth-first order, like GJDepthFirst, but the children are visited by dispatch, which
+ * switches on the kind of the node (syntaxtree.NodeKind) and calls the visit method of its class, instead of calling
+ * accept on the node. A call of accept can go to any of the node classes, so the JIT cannot inline it, while every case of
+ * the switch calls one visit method. Only to compare the two (bench/DispatchBench.java), dispatch calls accept when the
+ * JVM runs with -Dvisitor.dispatch=accept. USE_SWITCH is final, so the JIT drops the branch that is not taken.
+ */
+public class GJSwitchDepthFirst<R,A> extends GJDepthFirst<R,A> {
+   public static final boolean USE_SWITCH = !"accept".equals(System.getProperty("visitor.dispatch"));
+
+   public R dispatch(Node n, A argu) throws Exception {
+      if (!USE_SWITCH)
+         return n.accept(this, argu);
+      switch (NodeKind.of(n)) {
+         case NodeKind.LIST: return visit((NodeListOptional) n, argu);
+         case NodeKind.OPTIONAL: return visit((NodeOptional) n, argu);
+         case NodeKind.GOAL: return visit((Goal) n, argu);
+         case NodeKind.MAIN_CLASS: return visit((MainClass) n, argu);
+         case NodeKind.CLASS_DECLARATION: return visit((ClassDeclaration) n, argu);
+         case NodeKind.CLASS_EXTENDS_DECLARATION: return visit((ClassExtendsDeclaration) n, argu);
+         case NodeKind.VAR_DECLARATION: return visit((VarDeclaration) n, argu);
+         case NodeKind.METHOD_DECLARATION: return visit((MethodDeclaration) n, argu);
+         case NodeKind.FORMAL_PARAMETER_LIST: return visit((FormalParameterList) n, argu);
+         case NodeKind.FORMAL_PARAMETER: return visit((FormalParameter) n, argu);
+         case NodeKind.FORMAL_PARAMETER_TAIL: return visit((FormalParameterTail) n, argu);
+         case NodeKind.FORMAL_PARAMETER_TERM: return visit((FormalParameterTerm) n, argu);
+         case NodeKind.ARRAY_TYPE: return visit((ArrayType) n, argu);
+         case NodeKind.BOOLEAN_TYPE: return visit((BooleanType) n, argu);
+         case NodeKind.INTEGER_TYPE: return visit((IntegerType) n, argu);
+         case NodeKind.BLOCK: return visit((Block) n, argu);
+         case NodeKind.ASSIGNMENT_STATEMENT: return visit((AssignmentStatement) n, argu);
+         case NodeKind.ARRAY_ASSIGNMENT_STATEMENT: return visit((ArrayAssignmentStatement) n, argu);
+         case NodeKind.IF_STATEMENT: return visit((IfStatement) n, argu);
+         case NodeKind.WHILE_STATEMENT: return visit((WhileStatement) n, argu);
+         case NodeKind.PRINT_STATEMENT: return visit((PrintStatement) n, argu);
+         case NodeKind.AND_EXPRESSION: return visit((AndExpression) n, argu);
+         case NodeKind.COMPARE_EXPRESSION: return visit((CompareExpression) n, argu);
+         case NodeKind.PLUS_EXPRESSION: return visit((PlusExpression) n, argu);
+         case NodeKind.MINUS_EXPRESSION: return visit((MinusExpression) n, argu);
+         case NodeKind.TIMES_EXPRESSION: return visit((TimesExpression) n, argu);
+         case NodeKind.ARRAY_LOOKUP: return visit((ArrayLookup) n, argu);
+         case NodeKind.ARRAY_LENGTH: return visit((ArrayLength) n, argu);
+         case NodeKind.MESSAGE_SEND: return visit((MessageSend) n, argu);
+         case NodeKind.EXPRESSION_LIST: return visit((ExpressionList) n, argu);
+         case NodeKind.EXPRESSION_TAIL: return visit((ExpressionTail) n, argu);
+         case NodeKind.EXPRESSION_TERM: return visit((ExpressionTerm) n, argu);
+         case NodeKind.INTEGER_LITERAL: return visit((IntegerLiteral) n, argu);
+         case NodeKind.TRUE_LITERAL: return visit((TrueLiteral) n, argu);
+         case NodeKind.FALSE_LITERAL: return visit((FalseLiteral) n, argu);
+         case NodeKind.IDENTIFIER: return visit((Identifier) n, argu);
+         case NodeKind.THIS_EXPRESSION: return visit((ThisExpression) n, argu);
+         case NodeKind.ARRAY_ALLOCATION_EXPRESSION: return visit((ArrayAllocationExpression) n, argu);
+         case NodeKind.ALLOCATION_EXPRESSION: return visit((AllocationExpression) n, argu);
+         case NodeKind.NOT_EXPRESSION: return visit((NotExpression) n, argu);
+         case NodeKind.BRACKET_EXPRESSION: return visit((BracketExpression) n, argu);
+         case NodeKind.TOKEN: return visit((NodeToken) n, argu);
+         case NodeKind.CHOICE: return dispatch(((NodeChoice) n).choice, argu);
+         case NodeKind.SEQUENCE: return visit((NodeSequence) n, argu);
+         case NodeKind.NODE_LIST: return visit((NodeList) n, argu);
+         case NodeKind.TYPE_DECLARATION: return visit((TypeDeclaration) n, argu);
+         case NodeKind.TYPE: return visit((Type) n, argu);
+         case NodeKind.STATEMENT: return visit((Statement) n, argu);
+         case NodeKind.EXPRESSION: return visit((Expression) n, argu);
+         case NodeKind.PRIMARY_EXPRESSION: return visit((PrimaryExpression) n, argu);
+         default: throw new IllegalArgumentException("unknown kind of node " + n.getClass().getName());
+      }
+   }
+
+   //
+   // Auto class visitors--probably don't need to be overridden.
+   //
+   public R visit(NodeList n, A argu) throws Exception {
+      if (n.size() == 1)
+         return dispatch(n.elementAt(0), argu);
+      R _ret=null;
+      int _count=0;
+      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
+         dispatch(e.nextElement(), argu);
+         _count++;
+      }
+      return _ret;
+   }
+
+   public R visit(NodeListOptional n, A argu) throws Exception {
+      if ( n.present() ) {
+         if (n.size() == 1)
+            return dispatch(n.elementAt(0), argu);
+         R _ret=null;
+         int _count=0;
+         for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
+            dispatch(e.nextElement(), argu);
+            _count++;
+         }
+         return _ret;
+      }
+      else
+         return null;
+   }
+
+   public R visit(NodeOptional n, A argu) throws Exception {
+      if ( n.present() )
+         return dispatch(n.node, argu);
+      else
+         return null;
+   }
+
+   public R visit(NodeSequence n, A argu) throws Exception {
+      if (n.size() == 1)
+         return dispatch(n.elementAt(0), argu);
+      R _ret=null;
+      int _count=0;
+      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
+         dispatch(e.nextElement(), argu);
+         _count++;
+      }
+      return _ret;
+   }
+
+   public R visit(NodeToken n, A argu) throws Exception { return null; }
+
+   //
+   // User-generated visitor methods below
+   //
+
+   /**
+    * f0 -> MainClass()
+    * f1 -> ( TypeDeclaration() )*
+    * f2 -> <EOF>
+    */
+   public R visit(Goal n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "class"
+    * f1 -> Identifier()
+    * f2 -> "{"
+    * f3 -> "public"
+    * f4 -> "static"
+    * f5 -> "void"
+    * f6 -> "main"
+    * f7 -> "("
+    * f8 -> "String"
+    * f9 -> "["
+    * f10 -> "]"
+    * f11 -> Identifier()
+    * f12 -> ")"
+    * f13 -> "{"
+    * f14 -> ( VarDeclaration() )*
+    * f15 -> ( Statement() )*
+    * f16 -> "}"
+    * f17 -> "}"
+    */
+   public R visit(MainClass n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      dispatch(n.f5, argu);
+      dispatch(n.f6, argu);
+      dispatch(n.f7, argu);
+      dispatch(n.f8, argu);
+      dispatch(n.f9, argu);
+      dispatch(n.f10, argu);
+      dispatch(n.f11, argu);
+      dispatch(n.f12, argu);
+      dispatch(n.f13, argu);
+      dispatch(n.f14, argu);
+      dispatch(n.f15, argu);
+      dispatch(n.f16, argu);
+      dispatch(n.f17, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> ClassDeclaration()
+    *       | ClassExtendsDeclaration()
+    */
+   public R visit(TypeDeclaration n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> "class"
+    * f1 -> Identifier()
+    * f2 -> "{"
+    * f3 -> ( VarDeclaration() )*
+    * f4 -> ( MethodDeclaration() )*
+    * f5 -> "}"
+    */
+   public R visit(ClassDeclaration n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      dispatch(n.f5, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "class"
+    * f1 -> Identifier()
+    * f2 -> "extends"
+    * f3 -> Identifier()
+    * f4 -> "{"
+    * f5 -> ( VarDeclaration() )*
+    * f6 -> ( MethodDeclaration() )*
+    * f7 -> "}"
+    */
+   public R visit(ClassExtendsDeclaration n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      dispatch(n.f5, argu);
+      dispatch(n.f6, argu);
+      dispatch(n.f7, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> Type()
+    * f1 -> Identifier()
+    * f2 -> ";"
+    */
+   public R visit(VarDeclaration n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "public"
+    * f1 -> Type()
+    * f2 -> Identifier()
+    * f3 -> "("
+    * f4 -> ( FormalParameterList() )?
+    * f5 -> ")"
+    * f6 -> "{"
+    * f7 -> ( VarDeclaration() )*
+    * f8 -> ( Statement() )*
+    * f9 -> "return"
+    * f10 -> Expression()
+    * f11 -> ";"
+    * f12 -> "}"
+    */
+   public R visit(MethodDeclaration n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      dispatch(n.f5, argu);
+      dispatch(n.f6, argu);
+      dispatch(n.f7, argu);
+      dispatch(n.f8, argu);
+      dispatch(n.f9, argu);
+      dispatch(n.f10, argu);
+      dispatch(n.f11, argu);
+      dispatch(n.f12, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> FormalParameter()
+    * f1 -> FormalParameterTail()
+    */
+   public R visit(FormalParameterList n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> Type()
+    * f1 -> Identifier()
+    */
+   public R visit(FormalParameter n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> ( FormalParameterTerm() )*
+    */
+   public R visit(FormalParameterTail n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> ","
+    * f1 -> FormalParameter()
+    */
+   public R visit(FormalParameterTerm n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> ArrayType()
+    *       | BooleanType()
+    *       | IntegerType()
+    *       | Identifier()
+    */
+   public R visit(Type n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> "int"
+    * f1 -> "["
+    * f2 -> "]"
+    */
+   public R visit(ArrayType n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "boolean"
+    */
+   public R visit(BooleanType n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> "int"
+    */
+   public R visit(IntegerType n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> Block()
+    *       | AssignmentStatement()
+    *       | ArrayAssignmentStatement()
+    *       | IfStatement()
+    *       | WhileStatement()
+    *       | PrintStatement()
+    */
+   public R visit(Statement n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> "{"
+    * f1 -> ( Statement() )*
+    * f2 -> "}"
+    */
+   public R visit(Block n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> Identifier()
+    * f1 -> "="
+    * f2 -> Expression()
+    * f3 -> ";"
+    */
+   public R visit(AssignmentStatement n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> Identifier()
+    * f1 -> "["
+    * f2 -> Expression()
+    * f3 -> "]"
+    * f4 -> "="
+    * f5 -> Expression()
+    * f6 -> ";"
+    */
+   public R visit(ArrayAssignmentStatement n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      dispatch(n.f5, argu);
+      dispatch(n.f6, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "if"
+    * f1 -> "("
+    * f2 -> Expression()
+    * f3 -> ")"
+    * f4 -> Statement()
+    * f5 -> "else"
+    * f6 -> Statement()
+    */
+   public R visit(IfStatement n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      dispatch(n.f5, argu);
+      dispatch(n.f6, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "while"
+    * f1 -> "("
+    * f2 -> Expression()
+    * f3 -> ")"
+    * f4 -> Statement()
+    */
+   public R visit(WhileStatement n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "System.out.println"
+    * f1 -> "("
+    * f2 -> Expression()
+    * f3 -> ")"
+    * f4 -> ";"
+    */
+   public R visit(PrintStatement n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> AndExpression()
+    *       | CompareExpression()
+    *       | PlusExpression()
+    *       | MinusExpression()
+    *       | TimesExpression()
+    *       | ArrayLookup()
+    *       | ArrayLength()
+    *       | MessageSend()
+    *       | PrimaryExpression()
+    */
+   public R visit(Expression n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> PrimaryExpression()
+    * f1 -> "&&"
+    * f2 -> PrimaryExpression()
+    */
+   public R visit(AndExpression n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> PrimaryExpression()
+    * f1 -> "<"
+    * f2 -> PrimaryExpression()
+    */
+   public R visit(CompareExpression n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> PrimaryExpression()
+    * f1 -> "+"
+    * f2 -> PrimaryExpression()
+    */
+   public R visit(PlusExpression n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> PrimaryExpression()
+    * f1 -> "-"
+    * f2 -> PrimaryExpression()
+    */
+   public R visit(MinusExpression n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> PrimaryExpression()
+    * f1 -> "*"
+    * f2 -> PrimaryExpression()
+    */
+   public R visit(TimesExpression n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> PrimaryExpression()
+    * f1 -> "["
+    * f2 -> PrimaryExpression()
+    * f3 -> "]"
+    */
+   public R visit(ArrayLookup n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> PrimaryExpression()
+    * f1 -> "."
+    * f2 -> "length"
+    */
+   public R visit(ArrayLength n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> PrimaryExpression()
+    * f1 -> "."
+    * f2 -> Identifier()
+    * f3 -> "("
+    * f4 -> ( ExpressionList() )?
+    * f5 -> ")"
+    */
+   public R visit(MessageSend n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      dispatch(n.f5, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> Expression()
+    * f1 -> ExpressionTail()
+    */
+   public R visit(ExpressionList n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> ( ExpressionTerm() )*
+    */
+   public R visit(ExpressionTail n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> ","
+    * f1 -> Expression()
+    */
+   public R visit(ExpressionTerm n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> IntegerLiteral()
+    *       | TrueLiteral()
+    *       | FalseLiteral()
+    *       | Identifier()
+    *       | ThisExpression()
+    *       | ArrayAllocationExpression()
+    *       | AllocationExpression()
+    *       | NotExpression()
+    *       | BracketExpression()
+    */
+   public R visit(PrimaryExpression n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> <INTEGER_LITERAL>
+    */
+   public R visit(IntegerLiteral n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> "true"
+    */
+   public R visit(TrueLiteral n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> "false"
+    */
+   public R visit(FalseLiteral n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> <IDENTIFIER>
+    */
+   public R visit(Identifier n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> "this"
+    */
+   public R visit(ThisExpression n, A argu) throws Exception {
+      return dispatch(n.f0, argu);
+   }
+
+   /**
+    * f0 -> "new"
+    * f1 -> "int"
+    * f2 -> "["
+    * f3 -> Expression()
+    * f4 -> "]"
+    */
+   public R visit(ArrayAllocationExpression n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      dispatch(n.f4, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "new"
+    * f1 -> Identifier()
+    * f2 -> "("
+    * f3 -> ")"
+    */
+   public R visit(AllocationExpression n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      dispatch(n.f3, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "!"
+    * f1 -> PrimaryExpression()
+    */
+   public R visit(NotExpression n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      return _ret;
+   }
+
+   /**
+    * f0 -> "("
+    * f1 -> Expression()
+    * f2 -> ")"
+    */
+   public R visit(BracketExpression n, A argu) throws Exception {
+      R _ret=null;
+      dispatch(n.f0, argu);
+      dispatch(n.f1, argu);
+      dispatch(n.f2, argu);
+      return _ret;
+   }
+
+}